@@ -0,0 +1,112 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the metaspace and the warm-up time of 1, 4 and 16 concurrently
+ * started isolated classloaders of a {@link CachedIsolation}, which load
+ * the classes of Guava and Logback, with and without sharing these packages
+ * (see {@link CachedIsolation#setSharedPackages(java.util.Set)}). Every
+ * configuration runs in a new JVM. Run it using
+ * <code>gradle :se-commons-benchmarks:isolationFootprint</code>.
+ */
+public class IsolationFootprint {
+
+  protected static final String[] WORKLOAD = {
+      "com.google.common.collect.ImmutableList", "ch.qos.logback.classic.Logger"};
+
+  protected static final String[] SHARED_PACKAGES = {"com.google.common", "ch.qos.logback"};
+
+  protected static final int[] WORKERS = {1, 4, 16};
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 2) {
+      measure(Integer.parseInt(args[0]), Boolean.parseBoolean(args[1]));
+      return;
+    }
+    System.out.println("workers  shared  metaspace (MB)  warm-up (ms)");
+    String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    for (int workers : WORKERS) {
+      for (boolean shared : new boolean[] {false, true}) {
+        Process p = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            IsolationFootprint.class.getName(), String.valueOf(workers), String.valueOf(shared))
+            .redirectErrorStream(true).start();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = r.readLine()) != null) {
+            System.out.println(line);
+          }
+        }
+        p.waitFor();
+      }
+    }
+  }
+
+  protected static void measure(int workers, boolean shared) throws Exception {
+    URLClassLoader context = new URLClassLoader(classPath(), ClassLoader.getSystemClassLoader().getParent());
+    CachedIsolation.Simple isolation = new CachedIsolation.Simple();
+    if (shared) {
+      isolation.setSharedPackages(new HashSet<>(Arrays.asList(SHARED_PACKAGES)));
+    }
+    long metaspaceBefore = usedMetaspace();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      Thread t = new Thread(() -> {
+        Thread.currentThread().setContextClassLoader(context);
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        isolation.executeInClassloader(IsolationWorkload.class.getName(), "run", WORKLOAD, null);
+      });
+      t.start();
+      threads.add(t);
+    }
+    long started = System.nanoTime();
+    start.countDown();
+    for (Thread t : threads) {
+      t.join();
+    }
+    long warmUp = (System.nanoTime() - started) / 1_000_000;
+    // the isolated classloaders are still open
+    long metaspace = usedMetaspace() - metaspaceBefore;
+    System.out.printf("%7d  %6s  %14.1f  %12d%n", workers, shared, metaspace / 1024.0 / 1024.0, warmUp);
+    System.exit(0);
+  }
+
+  protected static URL[] classPath() throws MalformedURLException {
+    List<URL> urls = new ArrayList<>();
+    for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      urls.add(new File(entry).toURI().toURL());
+    }
+    return urls.toArray(new URL[0]);
+  }
+
+  protected static long usedMetaspace() {
+    System.gc();
+    long used = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getName().equals("Metaspace")) {
+        used += pool.getUsage().getUsed();
+      }
+    }
+    return used;
+  }
+
+}
@@ -0,0 +1,43 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * The work unit of {@link IsolationFootprint}, which is run within isolated
+ * classloaders: Loads all classes of the jars of the given classes, as a
+ * tool loads its runtime.
+ */
+public class IsolationWorkload {
+
+  public static void run(String[] classNames) throws IOException {
+    ClassLoader loader = IsolationWorkload.class.getClassLoader();
+    for (String className : classNames) {
+      URL url = loader.getResource(className.replace('.', '/') + ".class");
+      if (url == null || !"jar".equals(url.getProtocol())) {
+        throw new IllegalArgumentException("The class `" + className + "` is not loaded from a jar.");
+      }
+      JarURLConnection connection = (JarURLConnection) url.openConnection();
+      connection.setUseCaches(false);
+      try (JarFile jar = connection.getJarFile()) {
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+          String name = entries.nextElement().getName();
+          if (name.endsWith(".class") && !name.contains("-")) {
+            try {
+              Class.forName(name.substring(0, name.length() - 6).replace('/', '.'), false, loader);
+            } catch (ClassNotFoundException | LinkageError ignored) {
+              // e.g. optional dependencies
+            }
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,68 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A hook which hands every message to the blackhole, such that benchmarks
+ * measure the cost of the Log itself rather than of an output.
+ */
+public class BlackholeLogHook implements ILogHook {
+
+  protected final Blackhole blackhole;
+
+  public BlackholeLogHook(Blackhole blackhole) {
+    this.blackhole = blackhole;
+  }
+
+  @Override
+  public void doTrace(String msg, String logName) {
+    blackhole.consume(msg);
+  }
+
+  @Override
+  public void doDebug(String msg, String logName) {
+    blackhole.consume(msg);
+  }
+
+  @Override
+  public void doInfo(String msg, String logName) {
+    blackhole.consume(msg);
+  }
+
+  @Override
+  public void doWarn(Finding warn) {
+    blackhole.consume(warn);
+  }
+
+  @Override
+  public void doError(Finding error) {
+    blackhole.consume(error);
+  }
+
+  @Override
+  public void doPrintln(String msg) {
+    blackhole.consume(msg);
+  }
+
+  @Override
+  public void doErrPrint(String msg) {
+    blackhole.consume(msg);
+  }
+
+  @Override
+  public void doPrintStackTrace(Throwable t) {
+    blackhole.consume(t);
+  }
+
+  @Override
+  public void doErrPrintStackTrace(Throwable t) {
+    blackhole.consume(t);
+  }
+
+  @Override
+  public void doPrint(String msg) {
+    blackhole.consume(msg);
+  }
+
+}
@@ -0,0 +1,84 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A synchronous file hook which encodes messages into a buffer and writes it
+ * to a long-lived channel once it is full, i.e. the common alternative to a
+ * memory-mapped file. Used as baseline by the {@link FileLogHookBenchmark}.
+ */
+public class BufferedChannelLogHook extends FileLogHook implements AutoCloseable {
+
+  protected final FileChannel channel;
+
+  protected final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+  protected final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  public BufferedChannelLogHook(String fileName) {
+    super(fileName);
+    try {
+      channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      throw new MCFatalError(e.getMessage());
+    }
+  }
+
+  @Override
+  public synchronized void doPrintln(String msg) {
+    encode(msg);
+    encode(System.lineSeparator());
+  }
+
+  @Override
+  public synchronized void doPrint(String msg) {
+    encode(msg);
+  }
+
+  protected void encode(String msg) {
+    CharBuffer chars = CharBuffer.wrap(msg);
+    encoder.reset();
+    while (true) {
+      CoderResult result = encoder.encode(chars, buffer, true);
+      if (result.isUnderflow()) {
+        result = encoder.flush(buffer);
+      }
+      if (!result.isOverflow()) {
+        return;
+      }
+      flush();
+    }
+  }
+
+  @Override
+  public synchronized void flush() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new MCFatalError(e.getMessage());
+    }
+    buffer.clear();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    flush();
+    channel.close();
+  }
+
+}
@@ -0,0 +1,87 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures trace and debug messages of disabled levels, which should reduce
+ * to a load of the level mask. The configurations which make the mask
+ * permissive (levels of other log names, an open LogContext) show the cost
+ * of resolving the Log and its level instead. <code>resolve</code> is the
+ * check without the mask.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisabledLevelBenchmark {
+
+  protected static final String LOG_NAME = "de.se_rwth.benchmark.DisabledLevel";
+
+  /**
+   * none: only INFO is enabled;
+   * logName: TRACE is enabled for another log name;
+   * context: the messages are logged within a LogContext
+   */
+  @Param({"none", "logName", "context"})
+  public String configuration;
+
+  public String name = "Automaton";
+
+  public int line = 42;
+
+  protected LogContext context;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    Log.init();
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(new BlackholeLogHook(blackhole));
+    if ("logName".equals(configuration)) {
+      Log.setLogLevel("de.se_rwth.benchmark.Other", LogLevel.TRACE);
+    } else if ("context".equals(configuration)) {
+      // the mask is permissive while any context is open
+      context = Log.withContext();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (context != null) {
+      context.close();
+      context = null;
+    }
+    Log.internalRemove();
+  }
+
+  @Benchmark
+  public boolean resolve() {
+    return Log.getLog().doIsDebugEnabled(LOG_NAME);
+  }
+
+  @Benchmark
+  public boolean isDebugEnabled() {
+    return Log.isDebugEnabled(LOG_NAME);
+  }
+
+  @Benchmark
+  public void trace() {
+    Log.trace("Visiting the symbol", LOG_NAME);
+  }
+
+  @Benchmark
+  public void debugTemplate() {
+    Log.debug("Visiting the symbol {} in line {}", LOG_NAME, name, line);
+  }
+
+  @Benchmark
+  public void debugSupplier() {
+    Log.debug(() -> "Visiting the symbol " + name + " in line " + line, LOG_NAME);
+  }
+
+}
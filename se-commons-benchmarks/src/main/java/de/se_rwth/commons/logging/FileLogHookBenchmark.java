@@ -0,0 +1,61 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing (trace) lines to a file synchronously: by the
+ * {@link FileLogHook} (which opens the file per message), by a buffered
+ * channel ({@link BufferedChannelLogHook}) and by the
+ * {@link MappedFileLogHook}. The files are written to
+ * <code>target/benchmarks</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileLogHookBenchmark {
+
+  @Param({"file", "bufferedChannel", "mapped"})
+  public String hook;
+
+  protected ILogHook logHook;
+
+  protected String line = "[TRACE]  de.se_rwth.benchmark.File Visiting the symbol Automaton in line 42";
+
+  @Setup
+  public void setup() {
+    String fileName = "target/benchmarks/" + hook + ".log";
+    switch (hook) {
+      case "file":
+        logHook = new FileLogHook(fileName);
+        break;
+      case "bufferedChannel":
+        logHook = new BufferedChannelLogHook(fileName);
+        break;
+      case "mapped":
+        logHook = new MappedFileLogHook(fileName);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown hook " + hook);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    logHook.flush();
+    if (logHook instanceof AutoCloseable) {
+      ((AutoCloseable) logHook).close();
+    }
+  }
+
+  @Benchmark
+  public void println() {
+    logHook.doPrintln(line);
+  }
+
+}
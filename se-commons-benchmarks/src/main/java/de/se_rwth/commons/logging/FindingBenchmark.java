@@ -0,0 +1,82 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures warnings and errors including the creation of their findings and
+ * source positions. Fail quick is disabled and the findings are cleared after
+ * each iteration, such that the store does not grow across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindingBenchmark {
+
+  public String fileName = "src/main/grammars/Automaton.mc4";
+
+  public int line = 42;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    Log.init();
+    Log.enableFailQuick(false);
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(new BlackholeLogHook(blackhole));
+  }
+
+  @Setup(Level.Iteration)
+  public void clearFindings() {
+    Log.clearFindings();
+  }
+
+  @TearDown
+  public void tearDown() {
+    Log.internalRemove();
+  }
+
+  @Benchmark
+  public void warn() {
+    Log.warn("0xA0001 The symbol is unused.");
+  }
+
+  @Benchmark
+  public void warnWithPosition() {
+    Log.warn("0xA0001 The symbol is unused.", new SourcePosition(line, 4, fileName));
+  }
+
+  @Benchmark
+  public void error() {
+    Log.error("0xA0002 The symbol is undefined.");
+  }
+
+  @Benchmark
+  public void errorWithPosition() {
+    Log.error("0xA0002 The symbol is undefined.", new SourcePosition(line, 4, fileName));
+  }
+
+  @Benchmark
+  public void errorWithRange() {
+    Log.error("0xA0002 The symbol is undefined.",
+        new SourcePosition(line, 4, fileName), new SourcePosition(line, 13, fileName));
+  }
+
+  @Benchmark
+  public Finding finding() {
+    return Finding.error("0xA0002 The symbol is undefined.", new SourcePosition(line, 4, fileName));
+  }
+
+  @Benchmark
+  public String findingToString() {
+    return Finding.error("0xA0002 The symbol is undefined.", new SourcePosition(line, 4, fileName))
+        .toString();
+  }
+
+}
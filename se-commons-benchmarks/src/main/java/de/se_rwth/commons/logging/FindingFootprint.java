@@ -0,0 +1,45 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Measures the heap retained by one million positioned findings (as stored by
+ * the Log), which reference 100 model files. The file names are created per
+ * finding, as by a parser. Run it using
+ * <code>gradle :se-commons-benchmarks:footprint</code>.
+ */
+public class FindingFootprint {
+
+  protected static final int FINDINGS = 1_000_000;
+
+  protected static final int FILES = 100;
+
+  public static void main(String[] args) {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    long before = usedHeap(memory);
+
+    FindingsStore store = new FindingsStore();
+    for (int i = 0; i < FINDINGS; i++) {
+      String fileName = new StringBuilder("src/main/grammars/Model").append(i % FILES).append(".mc4").toString();
+      SourcePosition start = new SourcePosition(i % 5000, 4, fileName);
+      SourcePosition end = new SourcePosition(i % 5000, 17, fileName);
+      store.add(Finding.warning("0xA1010 The symbol is unused.", start, end));
+    }
+
+    long after = usedHeap(memory);
+    System.out.printf("%d findings retain %.1f MB (%d bytes per finding)%n", store.size(),
+        (after - before) / 1024.0 / 1024.0, (after - before) / store.size());
+  }
+
+  protected static long usedHeap(MemoryMXBean memory) {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+
+}
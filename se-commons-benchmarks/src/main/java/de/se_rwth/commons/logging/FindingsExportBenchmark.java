@@ -0,0 +1,52 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures reading an export of one million findings (see
+ * {@link FindingsExportHook}) in both formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FindingsExportBenchmark {
+
+  protected static final int FINDINGS = 1_000_000;
+
+  @Param({"JSON_LINES", "BINARY"})
+  public FindingsExportHook.Format format;
+
+  protected Path file;
+
+  @Setup
+  public void setup() {
+    file = Paths.get("target/benchmarks/findings." + format.name().toLowerCase());
+    try (FindingsExportHook hook = new FindingsExportHook(file.toString(), format)) {
+      for (int i = 0; i < FINDINGS; i++) {
+        SourcePosition pos = new SourcePosition(i % 5000, 4, "src/main/grammars/Model" + (i % 100) + ".mc4");
+        Finding finding = Finding.warning("0xA1010 The symbol Symbol" + i + " is unused.", pos);
+        finding.setLogName("de.monticore.symboltable");
+        hook.doWarn(finding);
+      }
+    }
+  }
+
+  @Benchmark
+  public long read() throws IOException {
+    LongAdder count = new LongAdder();
+    FindingsExportReader.forEach(file, f -> count.increment());
+    return count.sum();
+  }
+
+}
@@ -0,0 +1,114 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures info messages and warnings written by the log hooks shipped with
+ * se-commons-logging. The console hooks write to a discarding stream (which
+ * still encodes the messages), the file hooks write to
+ * <code>target/benchmarks</code> and the slf4j hook logs via logback (see
+ * <code>logback.xml</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogHookBenchmark {
+
+  @Param({"console", "bufferedConsole", "file", "asyncFile", "rollingFile", "slf4j", "collector"})
+  public String hook;
+
+  protected ILogHook logHook;
+
+  protected PrintStream out;
+
+  protected PrintStream err;
+
+  protected SourcePosition pos = new SourcePosition(42, 4, "src/main/grammars/Automaton.mc4");
+
+  @Setup
+  public void setup() {
+    out = System.out;
+    err = System.err;
+    switch (hook) {
+      case "console":
+      case "bufferedConsole":
+        PrintStream discard = new PrintStream(new OutputStream() {
+          @Override
+          public void write(int b) {
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) {
+          }
+        });
+        System.setOut(discard);
+        System.setErr(discard);
+        logHook = hook.equals("console") ? new ConsoleLogHook() : new BufferedConsoleLogHook();
+        break;
+      case "file":
+        logHook = new FileLogHook("target/benchmarks/file.log");
+        break;
+      case "asyncFile":
+        logHook = new AsyncFileLogHook("target/benchmarks/asyncFile.log");
+        break;
+      case "rollingFile":
+        logHook = new RollingFileLogHook("target/benchmarks/rollingFile.log", 16L * 1024 * 1024, 5);
+        break;
+      case "slf4j":
+        logHook = new Slf4jLogHook();
+        break;
+      case "collector":
+        logHook = new LogPrintCollector();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown hook " + hook);
+    }
+    Log.init();
+    Log.enableFailQuick(false);
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(logHook);
+  }
+
+  @Setup(Level.Iteration)
+  public void clear() {
+    Log.clearFindings();
+    if (logHook instanceof LogPrintCollector) {
+      ((LogPrintCollector) logHook).clearPrints();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    Log.flush();
+    if (logHook instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) logHook).close();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    Log.internalRemove();
+    System.setOut(out);
+    System.setErr(err);
+  }
+
+  @Benchmark
+  public void info() {
+    Log.info("Visiting the symbol Automaton", "de.se_rwth.benchmark.LogHook");
+  }
+
+  @Benchmark
+  public void warn() {
+    Log.warn("0xA0001 The symbol is unused.", pos);
+  }
+
+}
@@ -0,0 +1,48 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-message overhead of dispatching a log message to 1, 3 and
+ * 10 hooks, which only consume the message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogHookDispatchBenchmark {
+
+  @Param({"1", "3", "10"})
+  public int hooks;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    Log.init();
+    Log.getLog().logHooks.clear();
+    for (int i = 0; i < hooks; i++) {
+      Log.addLogHook(new BlackholeLogHook(blackhole));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    Log.internalRemove();
+  }
+
+  @Benchmark
+  public void info() {
+    Log.info("A message", "de.se_rwth.benchmark");
+  }
+
+  @Benchmark
+  public void println() {
+    Log.println("A message");
+  }
+
+}
@@ -0,0 +1,82 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures trace, debug and info messages with enabled and disabled levels.
+ * Disabled levels are the common case on generator hot paths, where their
+ * cost should be a mere level check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogLevelBenchmark {
+
+  protected static final String LOG_NAME = "de.se_rwth.benchmark.LogLevel";
+
+  @Param({"true", "false"})
+  public boolean enabled;
+
+  public String name = "Automaton";
+
+  public int line = 42;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    if (enabled) {
+      Log.initDEBUG();
+    } else {
+      Log.initWARN();
+    }
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(new BlackholeLogHook(blackhole));
+  }
+
+  @TearDown
+  public void tearDown() {
+    Log.internalRemove();
+  }
+
+  @Benchmark
+  public void trace() {
+    Log.trace("Visiting the symbol " + name + " in line " + line, LOG_NAME);
+  }
+
+  @Benchmark
+  public void traceTemplate() {
+    Log.trace("Visiting the symbol {} in line {}", LOG_NAME, name, line);
+  }
+
+  @Benchmark
+  public void traceSupplier() {
+    Log.trace(() -> "Visiting the symbol " + name + " in line " + line, LOG_NAME);
+  }
+
+  @Benchmark
+  public void debug() {
+    Log.debug("Visiting the symbol " + name + " in line " + line, LOG_NAME);
+  }
+
+  @Benchmark
+  public void debugTemplate() {
+    Log.debug("Visiting the symbol {} in line {}", LOG_NAME, name, line);
+  }
+
+  @Benchmark
+  public void info() {
+    Log.info("Visiting the symbol " + name + " in line " + line, LOG_NAME);
+  }
+
+  @Benchmark
+  public void infoTemplate() {
+    Log.info("Visiting the symbol {} in line {}", LOG_NAME, name, line);
+  }
+
+}
@@ -0,0 +1,54 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording metrics with enabled and disabled metrics.
+ * Disabled metrics should cost no more than a flag check, such that tools
+ * may stay instrumented.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+  @Param({"true", "false"})
+  public boolean enabled;
+
+  public long value = 42;
+
+  @Setup
+  public void setup() {
+    Metrics.setEnabled(enabled);
+  }
+
+  @TearDown
+  public void tearDown() {
+    Metrics.setEnabled(false);
+    Metrics.clear();
+  }
+
+  @Benchmark
+  public void count() {
+    Metrics.count("mc.benchmark.count");
+  }
+
+  @Benchmark
+  public void record() {
+    Metrics.record("mc.benchmark.record", value);
+  }
+
+  @Benchmark
+  public void stopwatch() {
+    try (Metrics.Stopwatch s = Metrics.start("mc.benchmark.timer")) {
+      value++;
+    }
+  }
+
+}
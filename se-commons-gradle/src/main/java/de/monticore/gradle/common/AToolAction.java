@@ -1,6 +1,7 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.monticore.gradle.common;
 
+import de.monticore.gradle.internal.TaskMetrics;
 import org.gradle.internal.logging.progress.ProgressLogger;
 import org.gradle.internal.logging.progress.ProgressLoggerFactory;
 import org.gradle.workers.WorkAction;
@@ -15,11 +16,20 @@ import java.util.Arrays;
  *  - (opt) a DisplayName, which will be reported
  *  - (opt) a {@link de.monticore.gradle.internal.ProgressLoggerService},
  *    which will be used to report the progress of the individual workactions
+ *  - (opt) a metrics scope, for which the metrics of the tool are aggregated
  */
 public abstract class AToolAction implements WorkAction<ToolArgActionParameter> {
 
   @Override
   public void execute() {
+    if (getParameters().getMetricsScope().isPresent()) {
+      TaskMetrics.runInScope(getParameters().getMetricsScope().get(), this::executeInScope);
+    } else {
+      executeInScope();
+    }
+  }
+
+  protected void executeInScope() {
     String[] args = this.getParameters().getArgs().get().toArray(new String[0]);
     String description = Arrays.toString(args);
 
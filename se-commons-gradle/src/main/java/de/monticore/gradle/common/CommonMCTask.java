@@ -4,7 +4,11 @@ package de.monticore.gradle.common;
 import de.monticore.gradle.AMontiCoreConfiguration;
 import de.monticore.gradle.internal.DebugClassLoader;
 import de.monticore.gradle.internal.ProgressLoggerService;
+import de.monticore.gradle.internal.TaskMetrics;
 import de.se_rwth.commons.logging.Log;
+import de.se_rwth.commons.logging.MetricStat;
+import de.se_rwth.commons.logging.Metrics;
+import de.se_rwth.commons.logging.MetricsTableSink;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.file.*;
 import org.gradle.api.provider.ListProperty;
@@ -47,6 +51,7 @@ import java.util.stream.StreamSupport;
  */
 public abstract class CommonMCTask extends DefaultTask {
    final static String TASK_DEBUG = "de.monticore.gradle.debug";
+  final static String TASK_METRICS = "de.monticore.gradle.metrics";
   final static String ORG_GRADLE_PARALLEL = "org.gradle.parallel";
 
   protected final ConfigurableFileCollection input = getProject().getObjects().fileCollection();
@@ -183,6 +188,14 @@ public abstract class CommonMCTask extends DefaultTask {
   @Optional
   public abstract Property<Boolean> getWorkQueueDebug();
 
+  /**
+   * Whether to record the metrics of the tool runs and print them as a table
+   * once all runs of this task completed.
+   * Defaults to the value of the {@link #TASK_METRICS} project property.
+   */
+  @Internal
+  public abstract Property<Boolean> getMetrics();
+
   @OutputDirectory
   public abstract DirectoryProperty getOutputDir();
 
@@ -229,6 +242,8 @@ public abstract class CommonMCTask extends DefaultTask {
     getDebug().convention(getProject().hasProperty(TASK_DEBUG) && "true".equals(getProject().property(TASK_DEBUG)));
     this.getOutputs().doNotCacheIf("Do not cache when debugging is enabled",
         (task) -> ((CommonMCTask) task).getDebug().get());
+    // metrics option: convention to false, except when TASK_METRICS is set
+    getMetrics().convention(getProject().hasProperty(TASK_METRICS) && "true".equals(getProject().property(TASK_METRICS)));
     // work queue debug option: convention to false, must be enabled on individual tasks
     getWorkQueueDebug().convention(false);
     this.getOutputs().doNotCacheIf("Do not cache when work queue debugging is enabled",
@@ -374,7 +389,18 @@ public abstract class CommonMCTask extends DefaultTask {
       // In debug mode, run code directly. Otherwise, breakpoints etc. do not work
       if (getExtraClasspathElements().isEmpty()) {
         // we probably should isolate the mills?
-        getRunMethod().accept(args.toArray(new String[0]));
+        if (getMetrics().get()) {
+          // the tool shares the metrics of this class loader
+          Metrics.setEnabled(true);
+          try {
+            getRunMethod().accept(args.toArray(new String[0]));
+          } finally {
+            Metrics.setEnabled(false);
+            TaskMetrics.merge(getPath(), Metrics.drainValues());
+          }
+        } else {
+          getRunMethod().accept(args.toArray(new String[0]));
+        }
       } else {
         // we have to add the extra classpath elements to the classpath
         getLogger().warn("Note: This task is run using the DebugClassLoader with extra class path elements, "
@@ -388,10 +414,31 @@ public abstract class CommonMCTask extends DefaultTask {
         param.getProgressName().set(progressName);
         param.getExtraClasspathElements().setFrom(this.getExtraClasspathElements());
         param.getProgressLogger().set(getProgressLoggerService());
+        if (getMetrics().get()) {
+          param.getMetricsScope().set(getPath());
+        }
       });
     }
   }
 
+  /**
+   * Prints the metrics of the tool runs of this task (if enabled),
+   * after waiting for the submitted runs to complete
+   */
+  protected void reportMetrics() {
+    if (!getMetrics().get()) {
+      return;
+    }
+    if (workQueue != null) {
+      workQueue.await();
+    }
+    List<MetricStat> stats = TaskMetrics.drain(getPath());
+    if (!stats.isEmpty()) {
+      getLogger().lifecycle("Metrics of {}:", getPath());
+      new MetricsTableSink(getLogger()::lifecycle).report(stats);
+    }
+  }
+
   @Internal
   public abstract Property<ProgressLoggerService> getProgressLoggerService();
 
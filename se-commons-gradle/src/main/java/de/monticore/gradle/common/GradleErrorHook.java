@@ -6,13 +6,19 @@ import de.se_rwth.commons.logging.Log;
 import de.se_rwth.commons.logging.Finding;
 import de.se_rwth.commons.logging.MCFatalError;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class GradleErrorHook implements IErrorHook {
 
   @Override
   public void terminate() {
-    String messages = Log.getFindings().stream()
+    terminate(Log.getFindings());
+  }
+
+  @Override
+  public void terminate(List<Finding> findings) {
+    String messages = findings.stream()
         .filter(Finding::isError)
         .map(Finding::toString)
         .collect(Collectors.joining(System.lineSeparator()));
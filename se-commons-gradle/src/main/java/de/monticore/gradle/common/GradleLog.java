@@ -3,8 +3,7 @@ package de.monticore.gradle.common;
 
 import de.se_rwth.commons.logging.ConsoleLogHook;
 import de.se_rwth.commons.logging.Log;
-
-import java.util.ArrayList;
+import de.se_rwth.commons.logging.LogHookList;
 
 public class GradleLog extends Log {
 
@@ -16,7 +15,7 @@ public class GradleLog extends Log {
     l.isTRACE = false;
     l.isDEBUG = false;
     l.isINFO = true;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new GradleErrorHook();
     GradleLog.setLog(l);
@@ -30,7 +29,7 @@ public class GradleLog extends Log {
     l.isDEBUG = true;
     l.isTRACE = true;
     l.isINFO = true;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new GradleErrorHook();
     GradleLog.setLog(l);
@@ -44,7 +43,7 @@ public class GradleLog extends Log {
     l.isTRACE = false;
     l.isDEBUG = false;
     l.isINFO = false;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new GradleErrorHook();
     GradleLog.setLog(l);
@@ -58,9 +57,17 @@ public class GradleLog extends Log {
     l.isTRACE = true;
     l.isDEBUG = false;
     l.isINFO = false;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new GradleErrorHook();
     GradleLog.setLog(l);
   }
+
+  /**
+   * The levels of a GradleLog are only set before it is initialized.
+   */
+  @Override
+  protected boolean hasStableLevels() {
+    return true;
+  }
 }
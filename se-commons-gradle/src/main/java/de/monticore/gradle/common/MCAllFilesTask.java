@@ -72,6 +72,7 @@ public abstract class MCAllFilesTask extends CommonMCTask {
 
       List<String> args = createArgList(p -> p.toAbsolutePath().toString());
       startGeneration(args, this.getName());
+      reportMetrics();
     } else {
       getLogger().info("UP-TO-DATE, no action required");
     }
@@ -113,6 +113,7 @@ abstract public class MCSingleFileTask extends CommonMCTask {
     getInput().getAsFileTree().getFiles().stream()
         .filter(this::isInputFile)
         .forEach(x -> runOnSingleInputFile(x, inputChanges));
+    reportMetrics();
   }
 
 }
@@ -30,4 +30,10 @@ public interface ToolArgActionParameter extends WorkParameters {
      * See {@link ProgressLoggerService}
      */
     Property<ProgressLoggerService> getProgressLogger();
+
+    /**
+     * Optional scope (i.e. task) the metrics of the tool are aggregated for,
+     * see {@link de.monticore.gradle.internal.TaskMetrics}
+     */
+    Property<String> getMetricsScope();
 }
@@ -0,0 +1,83 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal;
+
+import de.se_rwth.commons.logging.MetricStat;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates the {@link de.se_rwth.commons.logging.Metrics} of the tool runs
+ * of a task. As tools run within isolated class loaders, their metrics are
+ * passed as plain values (see {@link MetricStat#toValues()}).
+ * <p>
+ * The scope (i.e. the task) is set for the thread executing a work action,
+ * such that the {@link de.monticore.gradle.internal.isolation.CachedIsolation}
+ * can collect the metrics of the runs it executes for the work action.
+ */
+public class TaskMetrics {
+
+  protected static final ThreadLocal<String> currentScope = new ThreadLocal<>();
+
+  // the aggregated values by metric, per scope
+  protected static final Map<String, Map<String, long[]>> values = new ConcurrentHashMap<>();
+
+  /**
+   * Runs the action, aggregating the metrics of the tool runs for the scope
+   */
+  public static void runInScope(String scope, Runnable action) {
+    String previous = currentScope.get();
+    currentScope.set(scope);
+    try {
+      action.run();
+    } finally {
+      if (previous == null) {
+        currentScope.remove();
+      } else {
+        currentScope.set(previous);
+      }
+    }
+  }
+
+  /**
+   * @return the scope of the current thread, or null if metrics are not collected
+   */
+  @Nullable
+  public static String getScope() {
+    return currentScope.get();
+  }
+
+  /**
+   * Adds the values of a run to the metrics of the scope
+   */
+  public static void merge(String scope, Map<String, long[]> run) {
+    if (run.isEmpty()) {
+      return;
+    }
+    Map<String, long[]> aggregated = values.computeIfAbsent(scope, s -> new TreeMap<>());
+    synchronized (aggregated) {
+      run.forEach((name, v) -> aggregated.merge(name, v, MetricStat::merge));
+    }
+  }
+
+  /**
+   * Removes the metrics of the scope
+   *
+   * @return the aggregated metrics, sorted by name
+   */
+  public static List<MetricStat> drain(String scope) {
+    List<MetricStat> stats = new ArrayList<>();
+    Map<String, long[]> aggregated = values.remove(scope);
+    if (aggregated != null) {
+      synchronized (aggregated) {
+        aggregated.forEach((name, v) -> stats.add(new MetricStat(name, v)));
+      }
+    }
+    return stats;
+  }
+
+}
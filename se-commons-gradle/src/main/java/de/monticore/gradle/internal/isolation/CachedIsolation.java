@@ -1,19 +1,39 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.monticore.gradle.internal.isolation;
 
+import de.monticore.gradle.internal.TaskMetrics;
 import de.monticore.gradle.internal.io.PrefixStream;
 import de.monticore.gradle.internal.io.PrintStreamThreadProxy;
 import org.gradle.api.file.FileCollection;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -21,120 +41,498 @@ import java.util.stream.Stream;
 /**
  * A class which allows safe, concurrent execution of work units
  *  using reuseabe, isolated classloaders.
+ * Idle classloaders are kept in queues per key (see {@link #getKey(Object)}),
+ *  such that acquiring a reusable classloader neither scans all classloaders
+ *  nor holds a global lock.
  * @param <T> an optional object associated with an isolated classloader,
  *            used to determine reusability
  */
 public class CachedIsolation<T> {
 
+  // all isolated classloaders, modified while holding the lock of this
   protected final List<IIsolationData<T>> internalRunners = Collections.synchronizedList(new LinkedList<>());
 
+  // the idle isolated classloaders per key; an isolated classloader is
+  // acquired by removing it from its queue
+  protected final Map<Object, Queue<IIsolationData<T>>> idleRunners = new ConcurrentHashMap<>();
+
   /**
-   * Time (in ms) after the last use of an isolated classloader before its
-   * allocated resources are freed
+   * Decides which idle classloaders are closed, by default those idle for
+   * {@link EvictionPolicy#DEFAULT_IDLE_MILLIS}
    */
-  protected final long closeThreshold = 6 * 1000; // 6 seconds
+  protected volatile IEvictionPolicy evictionPolicy = new EvictionPolicy();
+
+  public static final long DEFAULT_CLEANUP_INTERVAL = 1000; // ms
+
+  // the interval in which the eviction policy is evaluated
+  protected long cleanupInterval = DEFAULT_CLEANUP_INTERVAL;
 
   /**
    * We periodically clean up the open classloaders
    * Closing classloaders frees up the resources from memory
    */
-  protected Timer cleanupTimer;
+  protected ScheduledFuture<?> cleanupTask;
+
+  // acquired idle classloaders, created classloaders (of work units / of prewarm), and closed idle classloaders
+  protected final LongAdder hits = new LongAdder();
+  protected final LongAdder misses = new LongAdder();
+  protected final LongAdder prewarmed = new LongAdder();
+  protected final LongAdder evictions = new LongAdder();
+
+  /**
+   * Runs the periodic tasks of all instances, such as the cleanup
+   */
+  protected static final ScheduledExecutorService SCHEDULER = newScheduler("CachedIsolation-scheduler");
+
+  /**
+   * Runs the checks of the {@link ColdStartScheduler}s of all instances,
+   * which must not wait for a (slow) cleanup, as they release the permits
+   */
+  protected static final ScheduledExecutorService STARTUP_CHECKS = newScheduler("CachedIsolation-startup-checks");
+
+  /**
+   * Creates the classloaders of {@link #prewarm(int, URLClassLoader, Supplier)},
+   * using at most as many threads as startups may run concurrently (see
+   * {@link ColdStartScheduler})
+   */
+  protected static final ExecutorService PREWARM = newPrewarmExecutor(Runtime.getRuntime().availableProcessors());
+
+  protected static ScheduledExecutorService newScheduler(String name) {
+    return Executors.newSingleThreadScheduledExecutor(daemonThreads(name));
+  }
 
-  // staggering the startup reduces strain on the (blocking) ZipFile$Source.readFullyAt
+  protected static ExecutorService newPrewarmExecutor(int threads) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), daemonThreads("CachedIsolation-prewarm"));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  protected static ThreadFactory daemonThreads(String name) {
+    return r -> {
+      Thread t = new Thread(r, name);
+      t.setDaemon(true);
+      // do not keep the classloader of the first user reachable
+      t.setContextClassLoader(null);
+      return t;
+    };
+  }
+
+  // the amount of classloaders per key which are created by prewarm, but are not yet idle
+  protected final Map<Object, AtomicInteger> prewarming = new ConcurrentHashMap<>();
+
+  // limiting the concurrent startups reduces strain on the (blocking) ZipFile$Source.readFullyAt
   // When the same class is loaded multiple times in parallel,
   // the switching between contexts causes a noticeable performance impact on some machines
-  protected int staggeredStartUpFixedDelay = -1;
-  protected int staggeredStartUpDelayPerRunner = -1;
+  protected final ColdStartScheduler coldStartScheduler = new ColdStartScheduler(STARTUP_CHECKS);
 
   /**
-   * {@link System#currentTimeMillis()} of when the last startup occurred for staggered startup delay
+   * Packages whose classes are defined once by a {@link SharedURLClassLoader}
+   * for all isolated classloaders (none by default)
    */
-  protected long lastStartup = -1;
+  protected Set<String> sharedPackages = Collections.emptySet();
+
+  // the parent of the isolated classloaders, while any of them is open
+  protected SharedURLClassLoader sharedClassLoader;
 
   /**
-   * How many class loaders are waiting for their staggered startup
+   * The directory of the class lists recorded when isolated classloaders are
+   * closed, and preloaded by {@link #prewarm(int, URLClassLoader, Supplier)},
+   * or null to not record them
    */
-  protected int staggerCount;
+  @Nullable
+  protected volatile Path classListDirectory;
 
   /**
+   * Has no effect: the startups are no longer staggered by fixed delays,
+   * but admitted by the {@link #getColdStartScheduler()}, which adapts to
+   * the measured class loading time.
    *
    * @param staggeredStartUpFixedDelay the (fixed) time between the first and all further runners
    * @param staggeredStartUpDelayPerRunner the time between the startup of individual runners
    */
+  @Deprecated
   public void setStaggeredStartupParams(int staggeredStartUpFixedDelay, int staggeredStartUpDelayPerRunner) {
-    this.staggeredStartUpFixedDelay = staggeredStartUpFixedDelay;
-    this.staggeredStartUpDelayPerRunner = staggeredStartUpDelayPerRunner;
+  }
+
+  /**
+   * @return the scheduler which limits the concurrent startups of isolated classloaders
+   */
+  public ColdStartScheduler getColdStartScheduler() {
+    return coldStartScheduler;
+  }
+
+  /**
+   * @param evictionPolicy decides which idle classloaders are closed
+   */
+  public synchronized void setEvictionPolicy(IEvictionPolicy evictionPolicy) {
+    Objects.requireNonNull(evictionPolicy);
+    if (cleanupTask != null) {
+      // classloaders are open, i.e. the current policy has been started
+      this.evictionPolicy.stop();
+      evictionPolicy.start();
+    }
+    this.evictionPolicy = evictionPolicy;
+  }
+
+  public IEvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+  /**
+   * @param cleanupInterval the interval (in ms) in which the eviction policy
+   *                        is evaluated, applied to the next cleanup task
+   */
+  public synchronized void setCleanupInterval(long cleanupInterval) {
+    if (cleanupInterval <= 0) {
+      throw new IllegalArgumentException("The cleanup interval must be positive.");
+    }
+    this.cleanupInterval = cleanupInterval;
+  }
+
+  /**
+   * @return the amount of work units which used an idle classloader
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the amount of work units which created a new classloader
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the amount of classloaders created by {@link #prewarm(int, URLClassLoader, Supplier)}
+   */
+  public long getPrewarmed() {
+    return prewarmed.sum();
+  }
+
+  /**
+   * @return the amount of idle classloaders closed by the eviction policy
+   */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return e.g. <code>12 hits, 4 misses, 0 prewarmed, 3 evictions, 1 open</code>
+   */
+  public String getStatistics() {
+    return getHits() + " hits, " + getMisses() + " misses, " + getPrewarmed() + " prewarmed, "
+            + getEvictions() + " evictions, " + this.internalRunners.size() + " open";
   }
 
   protected synchronized void setupTimer() {
-    if (cleanupTimer != null) return;
-    cleanupTimer = new Timer();
-    cleanupTimer.schedule(new TimerTask() {
-      @Override
-      public void run() {
-        CachedIsolation.this.cleanupOld();
+    if (cleanupTask != null) return;
+    this.evictionPolicy.start();
+    // a failing run must not suppress the following runs of the periodic task
+    cleanupTask = SCHEDULER.scheduleWithFixedDelay(() -> {
+      try {
+        this.cleanupOld();
+      } catch (RuntimeException e) {
+        System.err.println("Closing idle isolated classloaders threw ");
+        e.printStackTrace(System.err);
       }
-    }, closeThreshold, closeThreshold);
+    }, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return the key of isolated classloaders which are interchangeable,
+   * i.e. which were created for equal extra data
+   */
+  protected Object getKey(T extraData) {
+    return extraData;
   }
 
   /**
    * Get a new (auto-closing) isolated class loader.
    * In case no available class loaders are present,
    * a new instance may be created.
+   * Prefer {@link #getLoader(Object, Supplier)}, as finding an idle class
+   * loader requires testing the predicate for all of them.
    */
-  protected synchronized IIsolationData<T> getLoader(Predicate<T> predicate, Supplier<T> supplier) {
-    Optional<IIsolationData<T>> d = this.internalRunners.stream()
-            .filter(x -> !x.isRunning())
-            .filter(x -> predicate.test(x.getExtraData()))
-            .findAny();
-    if (d.isPresent()) {
-      d.get().setRunning(true);
-      return d.get();
-    }
-    this.cleanupOld();
-    final long staggerWait = getWaitForStaggeredStartup();
-    this.lastStartup = System.currentTimeMillis();
-    if (staggerWait <= 0) {
-      IsolationData<T> data = new IsolationData<>();
-      data.classLoader = getClassLoader((URLClassLoader) Thread.currentThread().getContextClassLoader(), supplier);
-      data.running = true;
-      data.extraData = supplier.get();
-      this.internalRunners.add(data);
-      setupTimer();
-      return data;
-    } else {
-      // Return a surrogate-like IsolationData
-      this.staggerCount++;
-      return new StaggeredIsolationData<>(() -> {
-        // which when asked (out of the synchronized context) first sleeps
-        try {
-          Thread.sleep(staggerWait);
-        } catch (InterruptedException ignored) {
+  protected IIsolationData<T> getLoader(Predicate<T> predicate, Supplier<T> supplier) {
+    IIsolationData<T> d = findIdle(predicate);
+    if (d != null) {
+      hits.increment();
+      return d;
+    }
+    return createLoader(() -> findIdle(predicate), supplier);
+  }
+
+  /**
+   * Get a new (auto-closing) isolated class loader with the given key
+   * (see {@link #getKey(Object)}).
+   * In case no idle class loader with the key is present,
+   * a new instance may be created.
+   */
+  protected IIsolationData<T> getLoader(Object key, Supplier<T> supplier) {
+    IIsolationData<T> d = pollIdle(key);
+    if (d != null) {
+      hits.increment();
+      return d;
+    }
+    return createLoader(() -> pollIdle(key), supplier);
+  }
+
+  /**
+   * @return an idle class loader matching the predicate (marked as running), or null
+   */
+  @Nullable
+  protected IIsolationData<T> findIdle(Predicate<T> predicate) {
+    for (Queue<IIsolationData<T>> idle : this.idleRunners.values()) {
+      for (IIsolationData<T> d : idle) {
+        if (predicate.test(d.getExtraData()) && idle.remove(d)) {
+          d.setRunning(true);
+          return d;
         }
-        this.staggerCount--;
-        // and then calls the getLoader method again
-        return this.getLoader(predicate, supplier);
-      });
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return an idle class loader with the key (marked as running), or null
+   */
+  @Nullable
+  protected IIsolationData<T> pollIdle(Object key) {
+    Queue<IIsolationData<T>> idle = this.idleRunners.get(key);
+    IIsolationData<T> d = idle == null ? null : idle.poll();
+    if (d != null) {
+      d.setRunning(true);
+    }
+    return d;
+  }
+
+  /**
+   * Create a new (auto-closing) isolated class loader, once the
+   * {@link ColdStartScheduler} admits its startup
+   * @param idle acquires a class loader which became idle while waiting
+   *             for the admission, or returns null
+   */
+  protected IIsolationData<T> createLoader(Supplier<IIsolationData<T>> idle, Supplier<T> supplier) {
+    ColdStartScheduler.Permit permit = acquireStartup();
+    IIsolationData<T> d;
+    try {
+      d = idle.get();
+    } catch (Throwable e) {
+      permit.close();
+      throw e;
+    }
+    if (d != null) {
+      permit.close();
+      hits.increment();
+      return d;
+    }
+    misses.increment();
+    return newLoader(permit, supplier);
+  }
+
+  protected ColdStartScheduler.Permit acquireStartup() {
+    try {
+      return this.coldStartScheduler.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the startup of an isolated classloader", e);
+    }
+  }
+
+  /**
+   * Create a new (auto-closing) isolated class loader, whose startup has
+   * been admitted. The permit is released if the creation fails, as further
+   * startups would otherwise wait for it forever.
+   */
+  protected IIsolationData<T> newLoader(ColdStartScheduler.Permit permit, Supplier<T> supplier) {
+    IsolationData<T> data = new IsolationData<>();
+    try {
+      URLClassLoader contextClassLoader = (URLClassLoader) Thread.currentThread().getContextClassLoader();
+      synchronized (this) {
+        this.evict(1);
+        data.classLoader = getClassLoader(contextClassLoader, supplier);
+        data.running = true;
+        data.extraData = supplier.get();
+        data.key = getKey(data.extraData);
+        data.classListFile = getClassListFile(contextClassLoader, data.key);
+        data.idleQueue = this.idleRunners.computeIfAbsent(data.key, k -> new ConcurrentLinkedQueue<>());
+        this.internalRunners.add(data);
+        setupTimer();
+      }
+    } catch (Throwable e) {
+      permit.close();
+      this.internalRunners.remove(data);
+      if (data.classLoader instanceof Closeable) {
+        try {
+          ((Closeable) data.classLoader).close();
+        } catch (IOException ignored) { }
+      }
+      throw e;
     }
+    // released once the startup is complete, or the first work unit finished
+    data.coldStart = permit;
+    permit.watch(data.classLoader);
+    return data;
+  }
+
+  /**
+   * Record the classes defined by an isolated classloader when it is closed
+   * (merged with the classes recorded before), such that
+   * {@link #prewarm(int, URLClassLoader, Supplier)} preloads them.
+   * The lists are kept per context classpath and key.
+   *
+   * @param classListDirectory the directory of the class lists, or null to
+   *                           neither record nor preload classes
+   */
+  public void setClassListDirectory(@Nullable Path classListDirectory) {
+    this.classListDirectory = classListDirectory;
   }
 
   /**
-   * When the startup is staggered,
-   * return the amount of ms to wait
-   * @return the amount of ms to wait, or <=0 to not wait
+   * Create isolated classloaders in the background (e.g. during the
+   * configuration of a build), such that the first work units find idle
+   * classloaders. Uses the context classloader of the current thread.
+   * See {@link #prewarm(int, URLClassLoader, Supplier)}.
    */
-  protected int getWaitForStaggeredStartup() {
-    // the amount of currently running runners
-    long currentlyRunning = this.internalRunners.stream().filter(IIsolationData::isRunning).count();
-    // as well as the amount of waiting-to-run runners
-    currentlyRunning += this.staggerCount;
-    if (currentlyRunning > 0) {
-      long duration = this.staggeredStartUpFixedDelay + currentlyRunning * this.staggeredStartUpDelayPerRunner;
-      // subtract the time which has passed between the last startup and now
-      long diff = (this.lastStartup + duration) - System.currentTimeMillis();
-      return (int) diff;
+  public CompletableFuture<Void> prewarm(int count, Supplier<T> supplier) {
+    return prewarm(count, (URLClassLoader) Thread.currentThread().getContextClassLoader(), supplier);
+  }
+
+  /**
+   * Create isolated classloaders in the background (e.g. during the
+   * configuration of a build), such that the first work units find idle
+   * classloaders. The classes recorded for the classpath and key (see
+   * {@link #setClassListDirectory(Path)}) are loaded into the new
+   * classloaders. The startups are admitted by the {@link ColdStartScheduler}.
+   * Classloaders which are still created by previous calls count as idle.
+   * Note that idle classloaders are closed according to the {@link #evictionPolicy}.
+   *
+   * @param count              the amount of idle classloaders with the key of
+   *                           the supplied extra data
+   * @param contextClassLoader the classloader whose classpath is isolated
+   * @param supplier           the additional arguments for the new loaders
+   * @return completed once the classloaders are idle
+   */
+  public CompletableFuture<Void> prewarm(int count, URLClassLoader contextClassLoader, Supplier<T> supplier) {
+    Object key = getKey(supplier.get());
+    Queue<IIsolationData<T>> idle = this.idleRunners.get(key);
+    AtomicInteger inFlight = this.prewarming.computeIfAbsent(key, k -> new AtomicInteger());
+    int missing;
+    // concurrent calls must not both create the same missing classloaders
+    synchronized (inFlight) {
+      missing = count - (idle == null ? 0 : idle.size()) - inFlight.get();
+      if (missing > 0) {
+        inFlight.addAndGet(missing);
+      }
+    }
+    List<String> classList = readClassList(getClassListFile(contextClassLoader, key));
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < missing; i++) {
+      // completed once closing the data returned the classloader to the idle queue
+      futures.add(CompletableFuture.runAsync(() -> prewarm(contextClassLoader, supplier, classList), PREWARM)
+          .whenComplete((r, e) -> inFlight.decrementAndGet()));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+  }
+
+  /**
+   * Create an isolated classloader, preload the classes of the class list
+   * and return it to the idle queue
+   */
+  protected void prewarm(URLClassLoader contextClassLoader, Supplier<T> supplier, List<String> classList) {
+    Thread.currentThread().setContextClassLoader(contextClassLoader);
+    try (IIsolationData<T> data = newLoader(acquireStartup(), supplier)) {
+      this.prewarmed.increment();
+      preload(data.getClassLoader(), classList);
+    } finally {
+      Thread.currentThread().setContextClassLoader(null);
+    }
+  }
+
+  /**
+   * Load (but do not initialize) the classes of a class list
+   */
+  protected void preload(ClassLoader classLoader, List<String> classList) {
+    for (String name : classList) {
+      try {
+        Class.forName(name, false, classLoader);
+      } catch (ClassNotFoundException | LinkageError ignored) {
+        // e.g. removed from the classpath since the list was recorded
+      }
+    }
+  }
+
+  /**
+   * @return the file of the class list of isolated classloaders with the
+   * classpath and key, or null if class lists are not recorded
+   */
+  @Nullable
+  protected Path getClassListFile(URLClassLoader contextClassLoader, Object key) {
+    Path dir = this.classListDirectory;
+    if (dir == null) {
+      return null;
+    }
+    List<String> values = new ArrayList<>();
+    for (URL url : contextClassLoader.getURLs()) {
+      values.add(url.toString());
+    }
+    values.add(String.valueOf(key));
+    return dir.resolve(hash(values) + ".classes");
+  }
+
+  /**
+   * @return the recorded class names, or an empty list
+   */
+  protected List<String> readClassList(@Nullable Path file) {
+    if (file == null || !Files.isRegularFile(file)) {
+      return Collections.emptyList();
+    }
+    try {
+      return Files.readAllLines(file, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Add the classes defined by a classloader to its class list
+   */
+  protected void recordClassList(IIsolationData<T> data) {
+    Path file = data.getClassListFile();
+    if (file == null || !(data.getClassLoader() instanceof IsolatedURLClassLoader)) {
+      return;
+    }
+    Set<String> classList = new LinkedHashSet<>(readClassList(file));
+    if (!classList.addAll(((IsolatedURLClassLoader) data.getClassLoader()).getDefinedClassNames())) {
+      return;
+    }
+    try {
+      Files.createDirectories(file.getParent());
+      Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      Files.write(tmp, classList, StandardCharsets.UTF_8);
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException ignored) {
+      // the class list only speeds up further startups
+    }
+  }
+
+  /**
+   * @return a hash of the values
+   */
+  protected static String hash(Iterable<String> values) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String value : values) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+      return new BigInteger(1, digest.digest()).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
     }
-    return -1;
   }
 
   /**
@@ -145,8 +543,46 @@ public class CachedIsolation<T> {
     return Set.of("org.gradle");
   }
 
+  /**
+   * Share the classes of the given packages between all isolated
+   * classloaders (see {@link SharedURLClassLoader} for the requirements of
+   * these packages), such that the jars are opened and the classes are
+   * defined only once, instead of by every isolated classloader. Only the
+   * classes of packages which hold static state (e.g. mills) need to be
+   * isolated.
+   * Must be set before the first isolated classloader is created.
+   *
+   * @param sharedPackages the package prefixes, e.g. <code>com.google.common</code>
+   */
+  public synchronized void setSharedPackages(Set<String> sharedPackages) {
+    if (!this.internalRunners.isEmpty()) {
+      throw new IllegalStateException("The shared packages must be set before the first isolated classloader is created.");
+    }
+    this.sharedPackages = new HashSet<>(sharedPackages);
+  }
+
+  /**
+   * @return the parent of a new isolated classloader, i.e. the shared
+   * classloader of the context classloader, or null if no packages are shared
+   */
+  @Nullable
+  protected synchronized ClassLoader getSharedClassLoader(URLClassLoader contextClassLoader) {
+    if (this.sharedPackages.isEmpty()) {
+      return null;
+    }
+    if (this.sharedClassLoader == null) {
+      this.sharedClassLoader = new SharedURLClassLoader(contextClassLoader, this.sharedPackages,
+              getPassThroughPackages());
+    } else if (this.sharedClassLoader.contextClassLoader != contextClassLoader) {
+      // do not mix the classes of different context classloaders
+      return null;
+    }
+    return this.sharedClassLoader;
+  }
+
   protected ClassLoader getClassLoader(URLClassLoader contextClassLoader, Supplier<T> supplier) {
-    return new IsolatedURLClassLoader(contextClassLoader, getPassThroughPackages());
+    return new IsolatedURLClassLoader(contextClassLoader.getURLs(), getSharedClassLoader(contextClassLoader),
+            contextClassLoader, getPassThroughPackages());
   }
 
   // Empty array of ProtectionDomain - see the doPrivileged() part below
@@ -160,6 +596,8 @@ public class CachedIsolation<T> {
    * Loads a class and runs a given method in an isolated class loader
    * Requires the class and method name as Strings,
    *  such that we do not load them from an existing parent classloader
+   * If the current thread has a {@link TaskMetrics} scope, the metrics of the
+   *  run are enabled and aggregated for the scope.
    *
    * @param classname the name of a class {@link Class#getName()}
    * @param method    the method of a method {@link Method#getName()}
@@ -171,10 +609,34 @@ public class CachedIsolation<T> {
   public void executeInClassloader(String classname, String method, String[] args,
                                    @Nullable String prefix,
                                    Predicate<T> predicate, Supplier<T> supplier) {
+    executeInClassloader(classname, method, args, prefix, () -> getLoader(predicate, supplier));
+  }
+
+  /**
+   * Loads a class and runs a given method in an isolated class loader
+   * (see {@link #executeInClassloader(String, String, String[], String, Predicate, Supplier)}),
+   * reusing an idle class loader with the given key
+   *
+   * @param key      the key of the additional elements (see {@link #getKey(Object)})
+   * @param supplier allows to set the additional arguments for a new loader
+   */
+  public void executeInClassloader(String classname, String method, String[] args,
+                                   @Nullable String prefix,
+                                   Object key, Supplier<T> supplier) {
+    executeInClassloader(classname, method, args, prefix, () -> getLoader(key, supplier));
+  }
+
+  protected void executeInClassloader(String classname, String method, String[] args,
+                                      @Nullable String prefix,
+                                      Supplier<IIsolationData<T>> loader) {
     final Thread currentThread = Thread.currentThread();
     ClassLoader originalClassLoader = currentThread.getContextClassLoader();
-    try (IIsolationData<T> isolationData = getLoader(predicate, supplier)) {
+    final String metricsScope = TaskMetrics.getScope();
+    try (IIsolationData<T> isolationData = loader.get()) {
       currentThread.setContextClassLoader(isolationData.getClassLoader());
+      if (metricsScope != null) {
+        setMetricsEnabled(isolationData.getClassLoader(), true);
+      }
 
       // set the prefix for the printing
       if (prefix != null) {
@@ -203,6 +665,10 @@ public class CachedIsolation<T> {
                   .invoke(null, (Object) args);
         } catch (ReflectiveOperationException e) {
           passThrowableAlong(e.getCause());
+        } finally {
+          if (metricsScope != null) {
+            collectMetrics(isolationData.getClassLoader(), metricsScope);
+          }
         }
         return null;
         // Continue with the modified AccessControlContext
@@ -217,6 +683,35 @@ public class CachedIsolation<T> {
     }
   }
 
+  protected static final String METRICS_NAME = "de.se_rwth.commons.logging.Metrics";
+
+  /**
+   * Enables or disables the metrics within an isolated class loader
+   * (the isolated tool might not support metrics)
+   */
+  protected void setMetricsEnabled(ClassLoader classLoader, boolean enabled) {
+    try {
+      classLoader.loadClass(METRICS_NAME).getMethod("setEnabled", boolean.class).invoke(null, enabled);
+    } catch (ReflectiveOperationException | LinkageError ignored) {
+    }
+  }
+
+  /**
+   * Disables the metrics within an isolated class loader, which is reused by
+   * later (possibly unscoped) runs, and moves the recorded metrics to the
+   * {@link TaskMetrics} of the scope
+   */
+  @SuppressWarnings("unchecked")
+  protected void collectMetrics(ClassLoader classLoader, String scope) {
+    setMetricsEnabled(classLoader, false);
+    try {
+      Map<String, long[]> values = (Map<String, long[]>) classLoader.loadClass(METRICS_NAME)
+              .getMethod("drainValues").invoke(null);
+      TaskMetrics.merge(scope, values);
+    } catch (ReflectiveOperationException | LinkageError ignored) {
+    }
+  }
+
   /**
    * A {@link DomainCombiner} which removes inner class loaders from a Threads
    * {@link AccessControlContext}
@@ -246,6 +741,7 @@ public class CachedIsolation<T> {
     if (classloader == null) return false;
     // Note: We are unable to compare using the class object due to classloaders
     return classloader.getClass().getName().equals(IsolatedURLClassLoader.class.getName())
+            || classloader.getClass().getName().equals(SharedURLClassLoader.class.getName())
             || classloader.getClass().getName().equals("groovy.lang.GroovyClassLoader$InnerLoader");
   }
 
@@ -296,12 +792,33 @@ public class CachedIsolation<T> {
   /**
    * Close unused classloaders to free up memory
    */
-  protected synchronized void cleanupOld() {
-    long threshold = System.currentTimeMillis() - this.closeThreshold;
-    Iterator<IIsolationData<T>> isolated = this.internalRunners.iterator();
-    while (isolated.hasNext()) {
-      IIsolationData<T> data = isolated.next();
-      if (!data.isRunning() && data.getLastRun() < threshold){
+  protected void cleanupOld() {
+    evict(0);
+  }
+
+  /**
+   * Close the idle classloaders chosen by the {@link #evictionPolicy}
+   * @param created the amount of classloaders about to be created
+   */
+  protected synchronized void evict(int created) {
+    long now = System.currentTimeMillis();
+    List<IIsolationData<T>> idle = new ArrayList<>();
+    for (IIsolationData<T> data : this.internalRunners) {
+      if (!data.isRunning()) {
+        idle.add(data);
+      }
+    }
+    idle.sort(Comparator.comparingLong(IIsolationData::getLastRun));
+    long[] idleMillis = new long[idle.size()];
+    for (int i = 0; i < idleMillis.length; i++) {
+      idleMillis[i] = now - idle.get(i).getLastRun();
+    }
+    int evict = this.evictionPolicy.evict(idleMillis, this.internalRunners.size() + created);
+    for (int i = 0; i < evict && i < idle.size(); i++) {
+      IIsolationData<T> data = idle.get(i);
+      // only close idle classloaders which have not been acquired concurrently
+      if (removeIdle(data)) {
+        recordClassList(data);
         if (data.getClassLoader() instanceof Closeable) {
           // Close closeable classloaders
           try {
@@ -309,24 +826,52 @@ public class CachedIsolation<T> {
           } catch (IOException ignored) { }
         }
         data.cleanUp();
-        isolated.remove();
+        this.internalRunners.remove(data);
+        evictions.increment();
       }
     }
-    if (cleanupTimer != null && this.internalRunners.isEmpty()) {
-      cleanupTimer.cancel();
-      cleanupTimer = null;
+    if (cleanupTask != null && this.internalRunners.isEmpty()) {
+      cleanupTask.cancel(false);
+      cleanupTask = null;
+      this.evictionPolicy.stop();
+    }
+    if (sharedClassLoader != null && this.internalRunners.isEmpty()) {
+      try {
+        sharedClassLoader.close();
+      } catch (IOException ignored) { }
+      sharedClassLoader = null;
     }
   }
 
+  /**
+   * Removes an idle classloader from its queue, such that it is not acquired
+   * @return false, if the classloader is not idle (anymore)
+   */
+  protected boolean removeIdle(IIsolationData<T> data) {
+    Queue<IIsolationData<T>> idle = this.idleRunners.get(data.getKey());
+    return idle != null && idle.remove(data);
+  }
+
   protected static class IsolationData<T> implements IIsolationData<T> {
     protected ClassLoader classLoader;
 
-    protected boolean running;
+    protected volatile boolean running;
 
-    protected long lastRun = System.currentTimeMillis();
+    protected volatile long lastRun = System.currentTimeMillis();
 
     protected T extraData;
 
+    protected Object key;
+
+    // the idle classloaders with the same key, joined on close
+    protected Queue<IIsolationData<T>> idleQueue;
+
+    // the admission of the startup, until released
+    protected ColdStartScheduler.Permit coldStart;
+
+    @Nullable
+    protected Path classListFile;
+
     @Override
     public ClassLoader getClassLoader() {
       return classLoader;
@@ -347,6 +892,16 @@ public class CachedIsolation<T> {
       return extraData;
     }
 
+    @Override
+    public Object getKey() {
+      return key;
+    }
+
+    @Override
+    public Path getClassListFile() {
+      return classListFile;
+    }
+
     @Override
     public long getLastRun() {
       return lastRun;
@@ -360,59 +915,15 @@ public class CachedIsolation<T> {
 
     @Override
     public void close() {
+      if (this.coldStart != null) {
+        this.coldStart.close();
+        this.coldStart = null;
+      }
       this.running = false;
       this.lastRun = System.currentTimeMillis();
-    }
-  }
-
-  protected static class StaggeredIsolationData<T> implements IIsolationData<T> {
-    protected Optional<IIsolationData<T>> actual = Optional.empty();
-    protected final Supplier<IIsolationData<T>> supplier;
-
-    public StaggeredIsolationData(Supplier<IIsolationData<T>> supplier) {
-      this.supplier = supplier;
-    }
-
-    protected IIsolationData<T> getActual() {
-      if (!actual.isPresent()) {
-        actual = Optional.of(supplier.get());
+      if (this.idleQueue != null) {
+        this.idleQueue.offer(this);
       }
-      return actual.get();
-    }
-
-    @Override
-    public ClassLoader getClassLoader() {
-      return getActual().getClassLoader();
-    }
-
-    @Override
-    public boolean isRunning() {
-      return getActual().isRunning();
-    }
-
-    @Override
-    public void setRunning(boolean r) {
-      getActual().setRunning(r);
-    }
-
-    @Override
-    public T getExtraData() {
-      return getActual().getExtraData();
-    }
-
-    @Override
-    public void cleanUp() {
-      getActual().cleanUp();
-    }
-
-    @Override
-    public long getLastRun() {
-      return getActual().getLastRun();
-    }
-
-    @Override
-    public void close() {
-      getActual().close();
     }
   }
 
@@ -425,6 +936,11 @@ public class CachedIsolation<T> {
 
     T getExtraData();
 
+    Object getKey();
+
+    @Nullable
+    Path getClassListFile();
+
     void cleanUp();
 
     long getLastRun();
@@ -438,7 +954,7 @@ public class CachedIsolation<T> {
    */
   public static class Simple extends CachedIsolation<Boolean> {
     public void executeInClassloader(String classname, String method, String[] args, @Nullable String prefix) {
-      super.executeInClassloader(classname, method, args, prefix, o -> true, () -> true);
+      super.executeInClassloader(classname, method, args, prefix, Boolean.TRUE, () -> true);
     }
   }
 
@@ -448,9 +964,29 @@ public class CachedIsolation<T> {
    */
   public static class WithClassPath extends CachedIsolation<FileCollection> {
     public void executeInClassloader(String classname, String method, String[] args, @Nullable String prefix, FileCollection classPath) {
-      super.executeInClassloader(classname, method, args, prefix,
-              f -> f.minus(classPath).getFiles().isEmpty() && classPath.minus(f).getFiles().isEmpty(), // check if the difference between the classpaths is empty
-              () -> classPath);
+      // classloaders of classpaths with the same files are interchangeable
+      super.executeInClassloader(classname, method, args, prefix, getKey(classPath), () -> classPath);
+    }
+
+    @Override
+    protected Object getKey(FileCollection classPath) {
+      return fingerprint(classPath.getFiles());
+    }
+
+    /**
+     * @return a hash of the sorted canonical paths of the files
+     */
+    protected static String fingerprint(Collection<File> files) {
+      List<String> paths = new ArrayList<>(files.size());
+      for (File f : files) {
+        try {
+          paths.add(f.getCanonicalPath());
+        } catch (IOException e) {
+          paths.add(f.getAbsolutePath());
+        }
+      }
+      Collections.sort(paths);
+      return hash(paths);
     }
 
     @Override
@@ -465,7 +1001,8 @@ public class CachedIsolation<T> {
                         }
                       }), Arrays.stream(contextClassLoader.getURLs()))
               .toArray(URL[]::new);
-      return new IsolatedURLClassLoader(urls, contextClassLoader, getPassThroughPackages());
+      return new IsolatedURLClassLoader(urls, getSharedClassLoader(contextClassLoader),
+              contextClassLoader, getPassThroughPackages());
     }
   }
 
@@ -0,0 +1,168 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the amount of isolated classloaders which start concurrently.
+ * Starting a classloader mostly means loading classes, which is slowed down
+ * by the contention on the (blocking) ZipFile$Source.readFullyAt once too
+ * many classloaders read the same jars. Further startups wait for a permit
+ * (without polling) and may take an isolated classloader which became idle
+ * in the meantime.
+ * <p>
+ * A permit is released once the started classloader has not defined a
+ * class for {@link #quietMillis}, or its first work unit finished. The
+ * limit is adapted to the measured loading time per class: it is increased
+ * while the time is close to the fastest startup observed, and halved once
+ * startups take considerably longer per class than that.
+ */
+public class ColdStartScheduler {
+
+  public static final long DEFAULT_QUIET_MILLIS = 200;
+
+  // startups with fewer classes are not used for the adaption
+  protected static final long MIN_CLASSES = 100;
+
+  // slower startups (compared to the fastest one) decrease the limit
+  protected static final double CONTENDED_FACTOR = 2.0;
+
+  // faster startups increase the limit
+  protected static final double UNCONTENDED_FACTOR = 1.25;
+
+  protected final ScheduledExecutorService executor;
+
+  protected final int maxLimit;
+
+  // guarded by this
+  protected int limit;
+  protected int running = 0;
+
+  // the fastest loading time (in ns) per class observed, or -1
+  protected double fastestNanosPerClass = -1;
+
+  protected long quietMillis = DEFAULT_QUIET_MILLIS;
+
+  /**
+   * @param executor checks whether the started classloaders became quiet
+   */
+  public ColdStartScheduler(ScheduledExecutorService executor) {
+    this(executor, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param executor     checks whether the started classloaders became quiet
+   * @param initialLimit the amount of concurrent startups, until adapted
+   * @param maxLimit     the max. amount of concurrent startups
+   */
+  public ColdStartScheduler(ScheduledExecutorService executor, int initialLimit, int maxLimit) {
+    if (initialLimit < 1 || maxLimit < initialLimit) {
+      throw new IllegalArgumentException("Invalid limits of concurrent startups: " + initialLimit + ", " + maxLimit);
+    }
+    this.executor = executor;
+    this.limit = initialLimit;
+    this.maxLimit = maxLimit;
+  }
+
+  /**
+   * @return the current amount of concurrent startups
+   */
+  public synchronized int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @param quietMillis the time without class definitions after which the
+   *                    startup of a classloader is complete
+   */
+  public synchronized void setQuietMillis(long quietMillis) {
+    this.quietMillis = quietMillis;
+  }
+
+  /**
+   * Blocks until a further classloader may be started
+   */
+  public synchronized Permit acquire() throws InterruptedException {
+    while (running >= limit) {
+      wait();
+    }
+    running++;
+    return new Permit();
+  }
+
+  protected synchronized void release(Permit permit, @Nullable IsolatedURLClassLoader loader) {
+    running--;
+    if (loader != null && loader.getDefinedClasses() >= MIN_CLASSES) {
+      adapt((double) loader.getLoadingNanos() / loader.getDefinedClasses());
+    }
+    notifyAll();
+  }
+
+  /**
+   * Adapts the limit to the loading time per class of a startup
+   */
+  protected void adapt(double nanosPerClass) {
+    if (fastestNanosPerClass < 0 || nanosPerClass < fastestNanosPerClass) {
+      fastestNanosPerClass = nanosPerClass;
+    }
+    if (nanosPerClass > fastestNanosPerClass * CONTENDED_FACTOR) {
+      limit = Math.max(1, limit / 2);
+    } else if (nanosPerClass < fastestNanosPerClass * UNCONTENDED_FACTOR) {
+      limit = Math.min(maxLimit, limit + 1);
+    }
+  }
+
+  /**
+   * The admission of a single startup
+   */
+  public class Permit implements AutoCloseable {
+
+    protected IsolatedURLClassLoader loader;
+
+    protected ScheduledFuture<?> quietCheck;
+
+    protected boolean released = false;
+
+    /**
+     * Releases the permit once the classloader became quiet
+     */
+    public synchronized void watch(ClassLoader classLoader) {
+      if (released || !(classLoader instanceof IsolatedURLClassLoader)) {
+        return;
+      }
+      IsolatedURLClassLoader started = (IsolatedURLClassLoader) classLoader;
+      this.loader = started;
+      long quietNanos;
+      synchronized (ColdStartScheduler.this) {
+        quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+      }
+      long period = Math.max(1, quietNanos / 4);
+      this.quietCheck = executor.scheduleWithFixedDelay(() -> {
+        if (System.nanoTime() - started.getLastDefinition() >= quietNanos) {
+          close();
+        }
+      }, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Releases the permit (if not already released)
+     */
+    @Override
+    public synchronized void close() {
+      if (released) {
+        return;
+      }
+      released = true;
+      if (quietCheck != null) {
+        quietCheck.cancel(false);
+      }
+      release(this, loader);
+      loader = null;
+    }
+  }
+
+}
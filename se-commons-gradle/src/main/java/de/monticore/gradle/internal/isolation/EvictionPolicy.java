@@ -0,0 +1,119 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+/**
+ * The default {@link IEvictionPolicy}, which closes idle isolated
+ * classloaders
+ * <ul>
+ *   <li>once they have been idle for {@link #idleMillis},</li>
+ *   <li>beyond {@link #maxIdle} idle classloaders,</li>
+ *   <li>beyond {@link #maxTotal} classloaders (as far as they are idle),</li>
+ *   <li>and, if enabled, all of them once a memory pool exceeded its usage
+ *   threshold (see {@link MemoryPressure}).</li>
+ * </ul>
+ * Longer idle classloaders are closed first.
+ */
+public class EvictionPolicy implements IEvictionPolicy {
+
+  public static final long DEFAULT_IDLE_MILLIS = 6 * 1000; // 6 seconds
+
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+
+  // max. time (in ms) a classloader is kept idle
+  protected final long idleMillis;
+
+  // max. amount of idle classloaders
+  protected final int maxIdle;
+
+  // max. amount of classloaders
+  protected final int maxTotal;
+
+  protected final boolean evictOnMemoryPressure;
+
+  // the memory pressure notifications handled so far (guarded by this)
+  protected long seenNotifications;
+
+  /**
+   * Closes classloaders idle for {@link #DEFAULT_IDLE_MILLIS}
+   */
+  public EvictionPolicy() {
+    this(DEFAULT_IDLE_MILLIS, UNLIMITED, UNLIMITED, false);
+  }
+
+  /**
+   * @param idleMillis            the max. time (in ms) a classloader is kept idle,
+   *                              or {@link Long#MAX_VALUE}
+   * @param maxIdle               the max. amount of idle classloaders, or {@link #UNLIMITED}
+   * @param maxTotal              the max. amount of classloaders, or {@link #UNLIMITED}
+   * @param evictOnMemoryPressure whether to close all idle classloaders once a
+   *                              memory pool exceeded its usage threshold
+   */
+  public EvictionPolicy(long idleMillis, int maxIdle, int maxTotal, boolean evictOnMemoryPressure) {
+    if (idleMillis < 0 || maxIdle < 0 || maxTotal < 0) {
+      throw new IllegalArgumentException("Invalid eviction policy: " + idleMillis + " ms, "
+          + maxIdle + " idle, " + maxTotal + " total");
+    }
+    this.idleMillis = idleMillis;
+    this.maxIdle = maxIdle;
+    this.maxTotal = maxTotal;
+    this.evictOnMemoryPressure = evictOnMemoryPressure;
+  }
+
+  /**
+   * Installs the {@link MemoryPressure} listener (if enabled)
+   */
+  @Override
+  public synchronized void start() {
+    if (evictOnMemoryPressure) {
+      MemoryPressure.acquire();
+      // only notifications from now on evict classloaders
+      seenNotifications = getNotificationCount();
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (evictOnMemoryPressure) {
+      MemoryPressure.release();
+    }
+  }
+
+  protected long getNotificationCount() {
+    return MemoryPressure.getNotificationCount();
+  }
+
+  public long getIdleMillis() {
+    return idleMillis;
+  }
+
+  public int getMaxIdle() {
+    return maxIdle;
+  }
+
+  public int getMaxTotal() {
+    return maxTotal;
+  }
+
+  public boolean isEvictOnMemoryPressure() {
+    return evictOnMemoryPressure;
+  }
+
+  @Override
+  public synchronized int evict(long[] idleMillis, int total) {
+    int evict = 0;
+    while (evict < idleMillis.length && idleMillis[evict] >= this.idleMillis) {
+      evict++;
+    }
+    evict = Math.max(evict, idleMillis.length - maxIdle);
+    evict = Math.max(evict, total - maxTotal);
+    if (evictOnMemoryPressure) {
+      long notifications = getNotificationCount();
+      if (notifications != seenNotifications) {
+        seenNotifications = notifications;
+        evict = idleMillis.length;
+      }
+    }
+    return Math.min(evict, idleMillis.length);
+  }
+
+}
@@ -0,0 +1,35 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+/**
+ * Decides which idle isolated classloaders of a {@link CachedIsolation} are
+ * closed. Evaluated periodically and before a new classloader is created.
+ */
+public interface IEvictionPolicy {
+
+  /**
+   * @param idleMillis the idle times (in ms) of the idle classloaders,
+   *                   the longest idle one first
+   * @param total      the amount of classloaders, including running ones
+   *                   and the one about to be created
+   * @return the amount of idle classloaders to close, starting with the
+   * longest idle one
+   */
+  int evict(long[] idleMillis, int total);
+
+  /**
+   * Called once a {@link CachedIsolation} using this policy created its
+   * first classloader, e.g. to acquire resources for the decision
+   */
+  default void start() {
+  }
+
+  /**
+   * Called once a {@link CachedIsolation} using this policy closed its last
+   * classloader (or replaced the policy), to release the resources of
+   * {@link #start()}
+   */
+  default void stop() {
+  }
+
+}
@@ -11,17 +11,40 @@ import java.lang.reflect.Field;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class IsolatedURLClassLoader extends URLClassLoader {
   protected final Set<String> passThroughPackages;
   protected final ClassLoader contextClassLoader;
 
+  // statistics of the classes defined by this classloader (see ColdStartScheduler)
+  protected final AtomicLong definedClasses = new AtomicLong();
+  protected final AtomicLong loadingNanos = new AtomicLong();
+  protected volatile long lastDefinition = System.nanoTime();
+
+  // the names of the defined classes, in the order of their definition
+  protected final Queue<String> definedClassNames = new ConcurrentLinkedQueue<>();
+
+  // the nesting of findClass calls (e.g. for super classes), such that
+  // the loading time is not counted multiple times
+  protected static final ThreadLocal<int[]> LOADING_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
   public IsolatedURLClassLoader(URLClassLoader contextClassLoader, Set<String> passThroughPackages) {
     this(contextClassLoader.getURLs(), contextClassLoader, passThroughPackages);
   }
 
   public IsolatedURLClassLoader(URL[] urls, URLClassLoader contextClassLoader, Set<String> passThroughPackages) {
-    super(urls, null);
+    this(urls, null, contextClassLoader, passThroughPackages);
+  }
+
+  /**
+   * @param parent the loader of the classes shared with other isolated
+   *               classloaders (see {@link SharedURLClassLoader}), or null
+   */
+  public IsolatedURLClassLoader(URL[] urls, @Nullable ClassLoader parent, URLClassLoader contextClassLoader,
+                                Set<String> passThroughPackages) {
+    super(urls, parent);
     this.contextClassLoader = contextClassLoader;
     this.passThroughPackages = passThroughPackages;
   }
@@ -29,17 +52,23 @@ public class IsolatedURLClassLoader extends URLClassLoader {
   private static final String CLEANER_PROVIDER_NAME = CleanerProvider.class.getName();
   private static final String SYNCDEISOLATED_NAME = SyncDeIsolated.class.getName();
 
-  @Override
-  protected Class<?> findClass(String name) throws ClassNotFoundException {
+  /**
+   * @return whether the class is loaded from the context classloader
+   */
+  protected static boolean isDeIsolated(String name) {
     // We explicitly do not isolate some classes:
-    if (name.equals(CLEANER_PROVIDER_NAME) // Tracks usages across isolates instances
+    return name.equals(CLEANER_PROVIDER_NAME) // Tracks usages across isolates instances
         || name.equals(SYNCDEISOLATED_NAME) // Allows synchronized mutex locks between isolated instances
-        || name.startsWith("org.slf4j")) // also pass slf4j through (to allow gradle to handle logging)
-    {
+        || name.startsWith("org.slf4j"); // also pass slf4j through (to allow gradle to handle logging)
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    if (isDeIsolated(name)) {
       return this.contextClassLoader.loadClass(name);
     }
     try {
-      return super.findClass(name);
+      return defineIsolated(name);
     } catch (ClassNotFoundException e) {
       if (passThroughPackages.stream().noneMatch(name::startsWith))
         throw e;
@@ -48,6 +77,57 @@ public class IsolatedURLClassLoader extends URLClassLoader {
     }
   }
 
+  /**
+   * Finds and defines a class of this classloader, measuring the time
+   */
+  protected Class<?> defineIsolated(String name) throws ClassNotFoundException {
+    int[] depth = LOADING_DEPTH.get();
+    long start = depth[0] == 0 ? System.nanoTime() : 0;
+    depth[0]++;
+    try {
+      Class<?> c = super.findClass(name);
+      definedClasses.incrementAndGet();
+      definedClassNames.add(name);
+      return c;
+    } finally {
+      depth[0]--;
+      if (depth[0] == 0) {
+        long now = System.nanoTime();
+        loadingNanos.addAndGet(now - start);
+        lastDefinition = now;
+      }
+    }
+  }
+
+  /**
+   * @return the amount of classes defined by this classloader
+   */
+  public long getDefinedClasses() {
+    return definedClasses.get();
+  }
+
+  /**
+   * @return the names of the classes defined by this classloader, in the
+   * order of their definition
+   */
+  public List<String> getDefinedClassNames() {
+    return new ArrayList<>(definedClassNames);
+  }
+
+  /**
+   * @return the time (in ns) spent finding and defining classes
+   */
+  public long getLoadingNanos() {
+    return loadingNanos.get();
+  }
+
+  /**
+   * @return the {@link System#nanoTime()} of the last class definition
+   */
+  public long getLastDefinition() {
+    return lastDefinition;
+  }
+
   @Override
   public void close() throws IOException {
     // Call all shutdown hooks created within this class loader:
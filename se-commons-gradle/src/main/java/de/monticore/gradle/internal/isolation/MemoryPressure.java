@@ -0,0 +1,115 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the notifications of memory pools exceeding their usage threshold,
+ * i.e. heap pools which are still filled after a garbage collection, and the
+ * metaspace (if limited), which is filled by the classes of isolated
+ * classloaders.
+ * Thresholds which are already set (e.g. by the build tool) are kept;
+ * others are set to {@link #DEFAULT_THRESHOLD} of the max. size of the pool.
+ * <p>
+ * The listener and thresholds are installed while any user has acquired
+ * them, and removed (reset) once the last user released them, as the
+ * platform MXBean would otherwise keep the classloader of this class
+ * reachable beyond the build.
+ */
+public class MemoryPressure {
+
+  public static final double DEFAULT_THRESHOLD = 0.85;
+
+  protected static final AtomicLong notifications = new AtomicLong();
+
+  // the following are guarded by MemoryPressure.class
+  protected static int users = 0;
+
+  protected static NotificationListener listener;
+
+  // the pools whose (collection) usage threshold has been set by us
+  protected static final List<MemoryPoolMXBean> collectionThresholds = new ArrayList<>();
+  protected static final List<MemoryPoolMXBean> usageThresholds = new ArrayList<>();
+
+  /**
+   * Sets the thresholds and starts counting notifications, unless already
+   * acquired by another user
+   */
+  public static synchronized void acquire() {
+    if (users++ > 0) {
+      return;
+    }
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      long max = pool.getUsage().getMax();
+      if (max <= 0) {
+        continue;
+      }
+      long threshold = (long) (max * DEFAULT_THRESHOLD);
+      if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()) {
+        if (pool.getCollectionUsageThreshold() == 0) {
+          pool.setCollectionUsageThreshold(threshold);
+          collectionThresholds.add(pool);
+        }
+      } else if (pool.getName().contains("Metaspace") && pool.isUsageThresholdSupported()) {
+        if (pool.getUsageThreshold() == 0) {
+          pool.setUsageThreshold(threshold);
+          usageThresholds.add(pool);
+        }
+      }
+    }
+    listener = (notification, handback) -> {
+      if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())
+          || MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+        notifications.incrementAndGet();
+      }
+    };
+    ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(listener, null, null);
+  }
+
+  /**
+   * Removes the listener and resets the thresholds set by
+   * {@link #acquire()}, once the last user released them
+   */
+  public static synchronized void release() {
+    if (users == 0 || --users > 0) {
+      return;
+    }
+    try {
+      ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(listener);
+    } catch (ListenerNotFoundException ignored) {
+    }
+    listener = null;
+    for (MemoryPoolMXBean pool : collectionThresholds) {
+      pool.setCollectionUsageThreshold(0);
+    }
+    collectionThresholds.clear();
+    for (MemoryPoolMXBean pool : usageThresholds) {
+      pool.setUsageThreshold(0);
+    }
+    usageThresholds.clear();
+  }
+
+  /**
+   * @return whether the listener is installed
+   */
+  public static synchronized boolean isInstalled() {
+    return listener != null;
+  }
+
+  /**
+   * @return the amount of notifications counted so far
+   */
+  public static long getNotificationCount() {
+    return notifications.get();
+  }
+
+}
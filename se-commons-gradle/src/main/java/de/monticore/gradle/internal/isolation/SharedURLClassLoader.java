@@ -0,0 +1,63 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+
+/**
+ * The parent of multiple {@link IsolatedURLClassLoader}s, which defines the
+ * classes of shared packages once for all of them, instead of every isolated
+ * classloader defining its own copy. The classes of all other packages are
+ * not found, such that the isolated classloaders define them.
+ * <p>
+ * Shared packages must neither hold static state (e.g. mills or global
+ * scopes), nor depend on classes of packages which are not shared, as these
+ * cannot be resolved by the shared classloader. Libraries which cache the
+ * classes of their callers (e.g. the ClassInfo of Groovy) should not be
+ * shared, as their caches would keep the isolated classloaders reachable.
+ */
+public class SharedURLClassLoader extends IsolatedURLClassLoader {
+
+  protected final Set<String> sharedPackages;
+
+  public SharedURLClassLoader(URLClassLoader contextClassLoader, Set<String> sharedPackages,
+                              Set<String> passThroughPackages) {
+    super(contextClassLoader.getURLs(), null, contextClassLoader, passThroughPackages);
+    this.sharedPackages = sharedPackages;
+  }
+
+  /**
+   * @return whether the class (or resource, e.g. <code>com/google/common/base/Joiner.class</code>)
+   * is loaded by this classloader
+   */
+  protected boolean isShared(String name) {
+    String className = name.replace('/', '.');
+    return sharedPackages.stream().anyMatch(className::startsWith) && !isDeIsolated(className);
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    if (!isShared(name)) {
+      throw new ClassNotFoundException(name);
+    }
+    return super.findClass(name);
+  }
+
+  // Resources of other packages are found by the isolated classloaders,
+  // which would otherwise return them twice
+
+  @Override
+  public URL findResource(String name) {
+    return isShared(name) ? super.findResource(name) : null;
+  }
+
+  @Override
+  public Enumeration<URL> findResources(String name) throws IOException {
+    return isShared(name) ? super.findResources(name) : Collections.emptyEnumeration();
+  }
+
+}
@@ -0,0 +1,46 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the prewarming of isolated classloaders
+ */
+public class CachedIsolationTest {
+
+  /**
+   * Creates empty classloaders, instead of isolating a classpath
+   */
+  protected static class EmptyIsolation extends CachedIsolation<Boolean> {
+    @Override
+    protected ClassLoader getClassLoader(URLClassLoader contextClassLoader, Supplier<Boolean> supplier) {
+      return new URLClassLoader(new URL[0], null);
+    }
+  }
+
+  @Test
+  public void testRepeatedPrewarm() {
+    EmptyIsolation isolation = new EmptyIsolation();
+    URLClassLoader context = new URLClassLoader(new URL[0], null);
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(isolation.prewarm(3, context, () -> true));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+    // classloaders still created by previous calls count as idle
+    assertEquals(3, isolation.getPrewarmed());
+    isolation.prewarm(4, context, () -> true).join();
+    assertEquals(4, isolation.getPrewarmed());
+  }
+
+}
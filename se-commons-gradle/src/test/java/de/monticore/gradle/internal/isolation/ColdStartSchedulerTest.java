@@ -0,0 +1,93 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the admission of the startups of isolated classloaders
+ */
+public class ColdStartSchedulerTest {
+
+  protected final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testLimit() throws InterruptedException {
+    ColdStartScheduler scheduler = new ColdStartScheduler(executor, 1, 4);
+    ColdStartScheduler.Permit permit = scheduler.acquire();
+    AtomicBoolean admitted = new AtomicBoolean();
+    Thread waiting = new Thread(() -> {
+      try (ColdStartScheduler.Permit p = scheduler.acquire()) {
+        admitted.set(true);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    waiting.start();
+    waiting.join(100);
+    assertFalse(admitted.get());
+
+    permit.close();
+    // releasing twice does not admit further startups
+    permit.close();
+    waiting.join(5000);
+    assertTrue(admitted.get());
+    assertEquals(0, scheduler.running);
+  }
+
+  @Test
+  public void testAdaption() {
+    ColdStartScheduler scheduler = new ColdStartScheduler(executor, 2, 4);
+    scheduler.adapt(1000);
+    assertEquals(3, scheduler.getLimit());
+    scheduler.adapt(1100);
+    assertEquals(4, scheduler.getLimit());
+    // contended startups halve the limit
+    scheduler.adapt(3000);
+    assertEquals(2, scheduler.getLimit());
+    scheduler.adapt(3000);
+    scheduler.adapt(3000);
+    assertEquals(1, scheduler.getLimit());
+  }
+
+  @Test
+  public void testPermitReleasedOnFailure() throws InterruptedException {
+    CachedIsolation.Simple isolation = new CachedIsolation.Simple();
+    ColdStartScheduler scheduler = isolation.getColdStartScheduler();
+    Thread thread = Thread.currentThread();
+    ClassLoader original = thread.getContextClassLoader();
+    // not a URLClassLoader, thus the creation of the isolated classloader fails
+    thread.setContextClassLoader(new ClassLoader(original) { });
+    try {
+      for (int i = 0; i <= scheduler.getLimit(); i++) {
+        try {
+          isolation.executeInClassloader("Tool", "main", new String[0], null);
+          fail("The isolated classloader has been created.");
+        } catch (ClassCastException expected) {
+        }
+      }
+    } finally {
+      thread.setContextClassLoader(original);
+    }
+    assertEquals(0, scheduler.running);
+    assertTrue(isolation.internalRunners.isEmpty());
+    // further startups are still admitted
+    ColdStartScheduler.Permit permit = scheduler.acquire();
+    permit.close();
+  }
+
+}
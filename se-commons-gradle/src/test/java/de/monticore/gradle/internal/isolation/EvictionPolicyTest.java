@@ -0,0 +1,85 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.gradle.internal.isolation;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the decisions of the default eviction policy
+ */
+public class EvictionPolicyTest {
+
+  @Test
+  public void testIdleTime() {
+    EvictionPolicy policy = new EvictionPolicy(1000, EvictionPolicy.UNLIMITED, EvictionPolicy.UNLIMITED, false);
+    assertEquals(0, policy.evict(new long[0], 0));
+    assertEquals(0, policy.evict(new long[]{999, 10}, 3));
+    assertEquals(2, policy.evict(new long[]{5000, 1000, 10}, 3));
+  }
+
+  @Test
+  public void testMaxIdle() {
+    EvictionPolicy policy = new EvictionPolicy(Long.MAX_VALUE, 2, EvictionPolicy.UNLIMITED, false);
+    assertEquals(0, policy.evict(new long[]{30, 20}, 5));
+    assertEquals(2, policy.evict(new long[]{40, 30, 20, 10}, 5));
+  }
+
+  @Test
+  public void testMaxTotal() {
+    EvictionPolicy policy = new EvictionPolicy(Long.MAX_VALUE, EvictionPolicy.UNLIMITED, 4, false);
+    assertEquals(0, policy.evict(new long[]{30, 20}, 4));
+    assertEquals(2, policy.evict(new long[]{30, 20}, 6));
+    // running classloaders are not evicted
+    assertEquals(2, policy.evict(new long[]{30, 20}, 10));
+    // the combination evicts the max. of the individual decisions
+    policy = new EvictionPolicy(25, 3, 4, false);
+    assertEquals(1, policy.evict(new long[]{30, 20}, 4));
+    assertEquals(2, policy.evict(new long[]{30, 20, 10, 5, 1}, 5));
+  }
+
+  @Test
+  public void testMemoryPressure() {
+    AtomicLong notifications = new AtomicLong(7);
+    EvictionPolicy policy = new EvictionPolicy(Long.MAX_VALUE, EvictionPolicy.UNLIMITED,
+        EvictionPolicy.UNLIMITED, true) {
+      @Override
+      protected long getNotificationCount() {
+        return notifications.get();
+      }
+    };
+    policy.start();
+    try {
+      assertTrue(MemoryPressure.isInstalled());
+      assertEquals(0, policy.evict(new long[]{30, 20}, 2));
+      // a new notification evicts all idle classloaders once
+      notifications.incrementAndGet();
+      assertEquals(2, policy.evict(new long[]{30, 20}, 2));
+      assertEquals(0, policy.evict(new long[]{30, 20}, 2));
+    } finally {
+      policy.stop();
+    }
+    assertFalse(MemoryPressure.isInstalled());
+  }
+
+  @Test
+  public void testMemoryPressureUsers() {
+    MemoryPressure.acquire();
+    MemoryPressure.acquire();
+    MemoryPressure.release();
+    assertTrue(MemoryPressure.isInstalled());
+    MemoryPressure.release();
+    assertFalse(MemoryPressure.isInstalled());
+    // releasing too often is ignored
+    MemoryPressure.release();
+    MemoryPressure.acquire();
+    assertTrue(MemoryPressure.isInstalled());
+    MemoryPressure.release();
+    assertFalse(MemoryPressure.isInstalled());
+  }
+
+}
@@ -0,0 +1,348 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link FileLogHook} which does not open and close the log file for every
+ * message. Messages are put into a bounded ring buffer and a background thread
+ * drains them in batches into a single, long-lived file channel.
+ * <p>
+ * A batch is written once either {@link #flushSize} messages are pending or
+ * the oldest pending message waited for {@link #flushIntervalMillis}.
+ * If the buffer is full, the logging thread blocks until the writer caught up
+ * (no messages are dropped).
+ * Errors and the termination of the {@link Log} trigger an explicit flush.
+ */
+public class AsyncFileLogHook extends FileLogHook implements AutoCloseable {
+
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  public static final int DEFAULT_FLUSH_SIZE = 512;
+
+  public static final long DEFAULT_FLUSH_INTERVAL = 200; // ms
+
+  // the ring buffer of pending messages (guarded by this)
+  protected final String[] ring;
+  protected int head = 0;
+  protected int size = 0;
+
+  // max. amount of messages written at once
+  protected final int flushSize;
+
+  // max. time (in ms) a message waits before it is written
+  protected final long flushIntervalMillis;
+
+  // when the oldest pending message was buffered
+  protected long firstPending = -1;
+
+  // amount of messages handed to the buffer / written to the file;
+  // used to wait for pending messages in flush()
+  protected long enqueued = 0;
+  protected long written = 0;
+
+  protected boolean flushRequested = false;
+
+  protected volatile boolean closed = false;
+
+  // only replaced by the writer thread, e.g. when rolling the file
+  protected FileChannel channel;
+
+  protected final Thread writer;
+
+  // closes the hook (and thus writes all pending messages) on JVM shutdown
+  protected final Thread shutdownHook;
+
+  // failure of the background thread, reported to the next logging thread
+  protected volatile IOException failure;
+
+  public AsyncFileLogHook(String fileName) {
+    this(fileName, DEFAULT_CAPACITY, DEFAULT_FLUSH_SIZE, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * @param fileName            the log file, truncated on construction
+   * @param capacity            the max. amount of buffered messages
+   * @param flushSize           the max. amount of messages written at once
+   * @param flushIntervalMillis the max. time (in ms) a message is buffered
+   */
+  public AsyncFileLogHook(String fileName, int capacity, int flushSize, long flushIntervalMillis) {
+    super(fileName);
+    if (capacity < 1 || flushSize < 1 || flushIntervalMillis < 0) {
+      throw new IllegalArgumentException("Invalid buffer configuration for the file logger `"
+          + fileName + "`.");
+    }
+    this.ring = new String[capacity];
+    this.flushSize = Math.min(flushSize, capacity);
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.channel = openChannel();
+    this.writer = new Thread(this::drain, "AsyncFileLogHook-" + fileName);
+    this.writer.setDaemon(true);
+    this.writer.start();
+    this.shutdownHook = new Thread(this::close);
+    Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+  }
+
+  protected FileChannel openChannel() {
+    try {
+      return FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      System.err.println("Initialization the file logger `" + fileName + "` threw ");
+      e.printStackTrace(System.err);
+      throw new MCFatalError(e.getMessage());
+    }
+  }
+
+  @Override
+  public void doPrintln(String msg) {
+    enqueue(msg + System.lineSeparator());
+  }
+
+  @Override
+  public void doPrint(String msg) {
+    enqueue(msg);
+  }
+
+  @Override
+  public void doPrintStackTrace(Throwable t) {
+    StringBuilder output = new StringBuilder();
+    for (StackTraceElement e : t.getStackTrace()) {
+      output.append(e).append("\n");
+    }
+    output.append(System.lineSeparator());
+    enqueue(output.toString());
+  }
+
+  @Override
+  public void doError(Finding error) {
+    super.doError(error);
+    requestFlush();
+  }
+
+  @Override
+  public void doError(Finding error, Throwable t) {
+    super.doError(error, t);
+    requestFlush();
+  }
+
+  @Override
+  public void doErrorUser(Finding error) {
+    super.doErrorUser(error);
+    requestFlush();
+  }
+
+  @Override
+  public void doErrorUser(Finding error, Throwable t) {
+    super.doErrorUser(error, t);
+    requestFlush();
+  }
+
+  protected void enqueue(String msg) {
+    checkFailure();
+    synchronized (this) {
+      while (size == ring.length && !closed) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+      if (!closed && size < ring.length) {
+        ring[(head + size) % ring.length] = msg;
+        size++;
+        enqueued++;
+        if (size == 1) {
+          firstPending = System.currentTimeMillis();
+          notifyAll();
+        } else if (size == flushSize) {
+          notifyAll();
+        }
+        return;
+      }
+    }
+    // the writer is gone (or we were interrupted), fall back to the synchronous file logger
+    super.doPrint(msg);
+  }
+
+  /**
+   * Wakes the writer such that all pending messages are written as soon as
+   * possible, without waiting for them.
+   */
+  public synchronized void requestFlush() {
+    flushRequested = true;
+    notifyAll();
+  }
+
+  /**
+   * Blocks until all messages logged before this call have been written.
+   */
+  @Override
+  public void flush() {
+    flush(Long.MAX_VALUE);
+  }
+
+  /**
+   * Blocks until all messages logged before this call have been written,
+   * but at most the given time.
+   *
+   * @param timeoutMillis the max. time to wait
+   * @return true, if all messages have been written
+   */
+  @Override
+  public boolean flush(long timeoutMillis) {
+    long start = System.currentTimeMillis();
+    synchronized (this) {
+      long target = enqueued;
+      flushRequested = true;
+      notifyAll();
+      while (written < target && writer.isAlive()) {
+        long remaining = timeoutMillis - (System.currentTimeMillis() - start);
+        if (remaining <= 0) {
+          return false;
+        }
+        try {
+          wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+    }
+    checkFailure();
+    return true;
+  }
+
+  /**
+   * Writes all pending messages, stops the background thread and closes the
+   * file. Messages logged afterwards are written synchronously.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      notifyAll();
+    }
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+    }
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException ignored) {
+      // shutdown is already in progress
+    }
+  }
+
+  protected void checkFailure() {
+    IOException e = failure;
+    if (e != null) {
+      failure = null;
+      throw new MCFatalError(e.getMessage());
+    }
+  }
+
+  /**
+   * The loop of the background thread
+   */
+  protected void drain() {
+    StringBuilder batch = new StringBuilder();
+    CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    ByteBuffer bytes = ByteBuffer.allocateDirect(64 * 1024);
+    while (true) {
+      int taken = 0;
+      synchronized (this) {
+        try {
+          while (!closed && !flushRequested && size < flushSize) {
+            if (size == 0) {
+              wait();
+            } else {
+              long remaining = firstPending + flushIntervalMillis - System.currentTimeMillis();
+              if (remaining <= 0) {
+                break;
+              }
+              wait(remaining);
+            }
+          }
+        } catch (InterruptedException e) {
+          // write what we have and terminate
+          closed = true;
+        }
+        if (size == 0) {
+          flushRequested = false;
+          if (closed) {
+            notifyAll();
+            return;
+          }
+          continue;
+        }
+        batch.setLength(0);
+        while (size > 0 && taken < flushSize) {
+          batch.append(ring[head]);
+          ring[head] = null;
+          head = (head + 1) % ring.length;
+          size--;
+          taken++;
+        }
+        firstPending = size > 0 ? System.currentTimeMillis() : -1;
+        // wake blocked logging threads
+        notifyAll();
+      }
+      try {
+        write(batch, encoder, bytes);
+      } catch (IOException e) {
+        System.err.printf("Writing to the file logger `%s` threw ", fileName);
+        e.printStackTrace(System.err);
+        failure = e;
+      }
+      synchronized (this) {
+        written += taken;
+        notifyAll();
+      }
+      if (batch.capacity() > 1024 * 1024) {
+        batch = new StringBuilder(); // do not keep huge batches in memory
+      }
+    }
+  }
+
+  /**
+   * Encodes and writes a batch of messages to the channel
+   */
+  protected void write(CharSequence chars, CharsetEncoder encoder, ByteBuffer bytes) throws IOException {
+    CharBuffer in = CharBuffer.wrap(chars);
+    encoder.reset();
+    CoderResult result;
+    do {
+      result = encoder.encode(in, bytes, true);
+      if (result.isUnderflow()) {
+        result = encoder.flush(bytes);
+      }
+      bytes.flip();
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+      bytes.clear();
+    } while (result.isOverflow());
+  }
+
+}
@@ -0,0 +1,412 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A console hook which, unlike {@link ConsoleLogHook}, does not print (and
+ * flush) every line on its own. Each thread formats its lines into a reused
+ * builder and encodes them into its own byte buffer, which is written to
+ * System.out (or System.err) at once when it is full, when the oldest line
+ * waited for {@link #flushIntervalMillis}, on errors and on {@link #flush()}.
+ * <p>
+ * The buffers are written by the threads that filled them, as System.out may
+ * redirect each thread to a different target (e.g. within Gradle workers).
+ * Lines which wait longer than the flush interval, as their thread does not
+ * log again, are written by a shared daemon thread, and a {@link #flush()}
+ * additionally writes the pending lines of other threads. Those lines then
+ * use the target of the writing thread.
+ * <p>
+ * The open hooks are referenced weakly by the flushing thread and a single
+ * shutdown hook, such that hooks which are no longer used do not leak.
+ * <p>
+ * Lines are encoded in the default charset. Optionally, warnings and errors
+ * are written to System.err. The order of lines across both streams is
+ * preserved for each thread.
+ */
+public class BufferedConsoleLogHook implements ILogHook, AutoCloseable {
+
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  public static final long DEFAULT_FLUSH_INTERVAL = 200; // ms
+
+  protected static final String LINE_SEPARATOR = System.lineSeparator();
+
+  // how often (in ms) the shared thread checks for lines waiting too long
+  protected static final long TICK_MILLIS = 50;
+
+  // the hooks which are not closed, referenced weakly
+  protected static final Set<BufferedConsoleLogHook> OPEN =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+  /**
+   * Writes the lines which waited too long, and all pending lines on JVM
+   * shutdown; started once the first hook is created
+   */
+  protected static class Flusher {
+
+    protected static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "BufferedConsoleLogHook-flusher");
+      t.setDaemon(true);
+      return t;
+    });
+
+    static {
+      EXECUTOR.scheduleWithFixedDelay(() -> {
+        long now = System.currentTimeMillis();
+        for (BufferedConsoleLogHook hook : open()) {
+          hook.flushExpired(now);
+        }
+      }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        for (BufferedConsoleLogHook hook : open()) {
+          hook.flush();
+        }
+      }, "BufferedConsoleLogHook shutdown"));
+    }
+
+    protected static void register(BufferedConsoleLogHook hook) {
+      OPEN.add(hook);
+    }
+
+    protected static List<BufferedConsoleLogHook> open() {
+      synchronized (OPEN) {
+        return new ArrayList<>(OPEN);
+      }
+    }
+  }
+
+  // the size (in bytes) of the buffer of each thread
+  protected final int bufferSize;
+
+  // max. time (in ms) a line is buffered
+  protected final long flushIntervalMillis;
+
+  // whether warnings and errors are written to System.err
+  protected final boolean findingsToErr;
+
+  protected final ThreadLocal<Buffer> buffer = ThreadLocal.withInitial(this::newBuffer);
+
+  // the buffers of all threads, such that flush() reaches all pending lines
+  protected final Set<Buffer> buffers = ConcurrentHashMap.newKeySet();
+
+  protected volatile boolean closed = false;
+
+  /**
+   * The lines of one thread. Guarded by itself, as other threads may flush it.
+   * Does not reference the hook, such that the thread-local buffers do not
+   * keep an unused hook reachable.
+   */
+  protected static class Buffer {
+
+    protected final Thread owner = Thread.currentThread();
+
+    protected final StringBuilder line = new StringBuilder(256);
+
+    protected char[] chars = new char[256];
+
+    protected CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+    protected final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    protected final ByteBuffer bytes;
+
+    // whether the pending bytes belong to System.err
+    protected boolean err = false;
+
+    // when the oldest pending line was buffered
+    protected long firstPending = -1;
+
+    protected Buffer(int bufferSize) {
+      this.bytes = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Encodes the line into the buffer
+     */
+    protected void append(boolean toErr) {
+      if (toErr != err) {
+        // preserve the order of lines across the streams
+        write();
+        err = toErr;
+      }
+      int length = line.length();
+      if (chars.length < length) {
+        chars = new char[Math.max(length, chars.length * 2)];
+        charBuffer = CharBuffer.wrap(chars);
+      }
+      line.getChars(0, length, chars, 0);
+      charBuffer.limit(length).position(0);
+      encoder.reset();
+      while (true) {
+        CoderResult result = encoder.encode(charBuffer, bytes, true);
+        if (result.isOverflow()) {
+          write();
+          continue;
+        }
+        result = encoder.flush(bytes);
+        if (result.isOverflow()) {
+          write();
+          continue;
+        }
+        break;
+      }
+      if (firstPending < 0) {
+        firstPending = System.currentTimeMillis();
+      }
+    }
+
+    /**
+     * Writes the pending bytes to the current System.out or System.err
+     */
+    protected void write() {
+      if (bytes.position() > 0) {
+        PrintStream stream = err ? System.err : System.out;
+        stream.write(bytes.array(), 0, bytes.position());
+        stream.flush();
+        bytes.clear();
+      }
+      firstPending = -1;
+    }
+  }
+
+  public BufferedConsoleLogHook() {
+    this(false);
+  }
+
+  /**
+   * @param findingsToErr whether warnings and errors are written to System.err
+   */
+  public BufferedConsoleLogHook(boolean findingsToErr) {
+    this(findingsToErr, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * @param findingsToErr       whether warnings and errors are written to System.err
+   * @param bufferSize          the size (in bytes) of the buffer of each thread
+   * @param flushIntervalMillis the max. time (in ms) a line is buffered
+   */
+  public BufferedConsoleLogHook(boolean findingsToErr, int bufferSize, long flushIntervalMillis) {
+    if (bufferSize < 64 || flushIntervalMillis < 0) {
+      throw new IllegalArgumentException("Invalid buffer configuration for the console logger.");
+    }
+    this.findingsToErr = findingsToErr;
+    this.bufferSize = bufferSize;
+    this.flushIntervalMillis = flushIntervalMillis;
+    Flusher.register(this);
+  }
+
+  protected Buffer newBuffer() {
+    Buffer b = new Buffer(bufferSize);
+    buffers.add(b);
+    return b;
+  }
+
+  /**
+   * @return the cleared line builder of the current thread, which is locked
+   * by the caller
+   */
+  protected Buffer begin() {
+    Buffer b = buffer.get();
+    b.line.setLength(0);
+    return b;
+  }
+
+  /**
+   * Buffers the line built in the buffer, and writes the buffer if necessary
+   */
+  protected void end(Buffer b, boolean toErr, boolean flush) {
+    if (closed) {
+      (toErr ? System.err : System.out).print(b.line);
+      return;
+    }
+    b.append(toErr);
+    if (flush || System.currentTimeMillis() - b.firstPending >= flushIntervalMillis) {
+      b.write();
+    }
+  }
+
+  @Override
+  public void doTrace(String msg, String logName) {
+    Buffer b = begin();
+    synchronized (b) {
+      MessageFormatter.appendLine(b.line, "[TRACE]  ", logName, msg).append(LINE_SEPARATOR);
+      end(b, false, false);
+    }
+  }
+
+  @Override
+  public void doDebug(String msg, String logName) {
+    Buffer b = begin();
+    synchronized (b) {
+      MessageFormatter.appendLine(b.line, "[DEBUG]  ", logName, msg).append(LINE_SEPARATOR);
+      end(b, false, false);
+    }
+  }
+
+  @Override
+  public void doDebug(String msg, SourcePosition pos, String logName) {
+    Buffer b = begin();
+    synchronized (b) {
+      MessageFormatter.appendLine(b.line, "[DEBUG]  ", logName, pos, msg).append(LINE_SEPARATOR);
+      end(b, false, false);
+    }
+  }
+
+  @Override
+  public void doDebug(String msg, SourcePosition start, SourcePosition end, String logName) {
+    Buffer b = begin();
+    synchronized (b) {
+      MessageFormatter.appendLine(b.line, "[DEBUG]  ", logName, start, end, msg).append(LINE_SEPARATOR);
+      end(b, false, false);
+    }
+  }
+
+  @Override
+  public void doInfo(String msg, String logName) {
+    Buffer b = begin();
+    synchronized (b) {
+      MessageFormatter.appendLine(b.line, "[INFO]  ", logName, msg).append(LINE_SEPARATOR);
+      end(b, false, false);
+    }
+  }
+
+  @Override
+  public void doWarn(Finding warn) {
+    finding("[WARN]  ", warn, false);
+  }
+
+  @Override
+  public void doError(Finding error) {
+    finding("[ERROR]  ", error, true);
+  }
+
+  @Override
+  public void doErrorUser(Finding error) {
+    finding("[USER-ERROR]  ", error, true);
+  }
+
+  protected void finding(String level, Finding finding, boolean flush) {
+    Buffer b = begin();
+    synchronized (b) {
+      MessageFormatter.appendLine(b.line, level, finding).append(LINE_SEPARATOR);
+      end(b, findingsToErr, flush);
+    }
+  }
+
+  @Override
+  public void doPrintln(String msg) {
+    Buffer b = begin();
+    synchronized (b) {
+      b.line.append(msg).append(LINE_SEPARATOR);
+      end(b, false, false);
+    }
+  }
+
+  @Override
+  public void doPrint(String msg) {
+    Buffer b = begin();
+    synchronized (b) {
+      b.line.append(msg);
+      end(b, false, false);
+    }
+  }
+
+  @Override
+  public void doErrPrint(String msg) {
+    Buffer b = begin();
+    synchronized (b) {
+      b.line.append(msg).append(LINE_SEPARATOR);
+      end(b, true, false);
+    }
+  }
+
+  @Override
+  public void doPrintStackTrace(Throwable t) {
+    Buffer b = buffer.get();
+    synchronized (b) {
+      b.write();
+      t.printStackTrace(System.out);
+    }
+  }
+
+  @Override
+  public void doErrPrintStackTrace(Throwable t) {
+    Buffer b = buffer.get();
+    synchronized (b) {
+      b.write();
+      t.printStackTrace(System.err);
+    }
+  }
+
+  /**
+   * Writes the pending lines of all threads
+   */
+  @Override
+  public void flush() {
+    Buffer own = buffer.get();
+    synchronized (own) {
+      own.write();
+    }
+    for (Buffer b : buffers) {
+      synchronized (b) {
+        b.write();
+      }
+      if (!b.owner.isAlive()) {
+        buffers.remove(b);
+      }
+    }
+  }
+
+  /**
+   * Writes the pending lines of all threads whose oldest line waited for the
+   * flush interval. Called by the shared flushing thread.
+   */
+  protected void flushExpired(long now) {
+    for (Buffer b : buffers) {
+      boolean alive = b.owner.isAlive();
+      synchronized (b) {
+        // the lines of terminated threads are written at once
+        if (b.firstPending >= 0 && (!alive || now - b.firstPending >= flushIntervalMillis)) {
+          b.write();
+        }
+      }
+      if (!alive) {
+        buffers.remove(b);
+      }
+    }
+  }
+
+  /**
+   * Writes the pending lines; later lines are printed directly
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    flush();
+    OPEN.remove(this);
+  }
+
+}
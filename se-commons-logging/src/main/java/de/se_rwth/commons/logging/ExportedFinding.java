@@ -0,0 +1,45 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+/**
+ * A finding as exported by {@link FindingsExportHook}, i.e. together with when
+ * and by which thread it was logged.
+ */
+public class ExportedFinding {
+
+  protected final Finding finding;
+
+  protected final long timestamp;
+
+  protected final String thread;
+
+  public ExportedFinding(Finding finding, long timestamp, String thread) {
+    this.finding = finding;
+    this.timestamp = timestamp;
+    this.thread = thread;
+  }
+
+  public Finding getFinding() {
+    return finding;
+  }
+
+  /**
+   * @return when the finding was logged (in ms since the epoch)
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * @return the name of the thread which logged the finding
+   */
+  public String getThread() {
+    return thread;
+  }
+
+  @Override
+  public String toString() {
+    return finding.toString();
+  }
+
+}
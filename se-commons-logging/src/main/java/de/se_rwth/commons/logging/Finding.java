@@ -3,6 +3,7 @@ package de.se_rwth.commons.logging;
 
 import de.se_rwth.commons.SourcePosition;
 
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -11,10 +12,6 @@ import java.util.Optional;
  *
  */
 public class Finding {
-  private static final String FORMAT_WITH_SOURCE_POSITION = "%s: %s";
-
-  private static final String FORMAT_WITH_TWO_SOURCE_POSITIONS = "%s - %s: %s";
-  
   public static enum Type {
     WARNING, ERROR, USER_ERROR;
   }
@@ -23,8 +20,12 @@ public class Finding {
   
   private String msg;
   
-  private Optional<SourcePosition> sourcePosition;
-  private Optional<SourcePosition> sourcePositionEnd;
+  // nullable rather than Optional, as millions of findings may be kept
+  private SourcePosition sourcePosition;
+  private SourcePosition sourcePositionEnd;
+
+  // the name of the component which reported the finding (or null)
+  private String logName;
 
   /**
    * Constructor for de.se_rwth.commons.logging.Finding
@@ -36,8 +37,7 @@ public class Finding {
   public Finding(Finding.Type type, String msg, SourcePosition sourcePosition) {
     this.type = type;
     this.msg = msg;
-    this.sourcePosition = Optional.ofNullable(sourcePosition);
-    this.sourcePositionEnd = Optional.empty();
+    this.sourcePosition = sourcePosition;
   }
 
   /**
@@ -51,8 +51,8 @@ public class Finding {
   public Finding(Finding.Type type, String msg, SourcePosition start, SourcePosition end) {
     this.type = type;
     this.msg = msg;
-    this.sourcePosition = Optional.ofNullable(start);
-    this.sourcePositionEnd = Optional.ofNullable(end);
+    this.sourcePosition = start;
+    this.sourcePositionEnd = end;
   }
   
   /**
@@ -64,8 +64,6 @@ public class Finding {
   public Finding(Finding.Type type, String msg) {
     this.type = type;
     this.msg = msg;
-    this.sourcePosition = Optional.empty();
-    this.sourcePositionEnd = Optional.empty();
   }
   
   /**
@@ -74,13 +72,29 @@ public class Finding {
    * @return the formatted message
    */
   public String buildMsg() {
-    if (this.sourcePositionEnd.isPresent() && this.sourcePosition.isPresent()) {
-      return String.format(FORMAT_WITH_TWO_SOURCE_POSITIONS, this.sourcePosition.get(), this.sourcePositionEnd.get(), this.msg);
-    } else if (this.sourcePosition.isPresent()) {
-      return String.format(FORMAT_WITH_SOURCE_POSITION, this.sourcePosition.get(), this.msg);
+    StringBuilder sb = MessageFormatter.acquire();
+    try {
+      buildMsg(sb);
+      return sb.toString();
+    } finally {
+      MessageFormatter.release(sb);
+    }
+  }
+
+  /**
+   * Appends the message in the default format.
+   *
+   * @param sb the builder to append to
+   */
+  public void buildMsg(StringBuilder sb) {
+    if (this.sourcePositionEnd != null && this.sourcePosition != null) {
+      sb.append(this.sourcePosition).append(" - ").append(this.sourcePositionEnd)
+          .append(": ").append(this.msg);
+    } else if (this.sourcePosition != null) {
+      sb.append(this.sourcePosition).append(": ").append(this.msg);
     }
     else {
-      return this.msg;
+      sb.append(this.msg);
     }
   }
   
@@ -88,23 +102,37 @@ public class Finding {
    * @return sourcePosition
    */
   public Optional<SourcePosition> getSourcePosition() {
-    return this.sourcePosition;
+    return Optional.ofNullable(this.sourcePosition);
   }
 
   /**
    * @return sourcePositionEnd
    */
   public Optional<SourcePosition> getSourcePositionEnd() {
-    return this.sourcePositionEnd;
+    return Optional.ofNullable(this.sourcePositionEnd);
   }
 
   /**
    * @param sourcePosition the sourcePosition to set
    */
   public void setSourcePosition(SourcePosition sourcePosition) {
-    this.sourcePosition = Optional.ofNullable(sourcePosition);
+    this.sourcePosition = sourcePosition;
   }
   
+  /**
+   * @return the name of the component which reported the finding, if known
+   */
+  public Optional<String> getLogName() {
+    return Optional.ofNullable(this.logName);
+  }
+
+  /**
+   * @param logName the name of the component which reported the finding
+   */
+  public void setLogName(String logName) {
+    this.logName = logName;
+  }
+
   /**
    * @return type
    */
@@ -165,7 +193,8 @@ public class Finding {
     final int prime = 31;
     int result = 1;
     result = prime * result + this.msg.hashCode();
-    result = prime * result + this.sourcePosition.hashCode();
+    // as the hash code of the former Optional
+    result = prime * result + Objects.hashCode(this.sourcePosition);
     result = prime * result + this.type.hashCode();
     return result;
   }
@@ -178,7 +207,7 @@ public class Finding {
     if (obj instanceof Finding) {
       Finding other = (Finding) obj;
       if (this.msg.equals(other.msg)
-          && this.sourcePosition.equals(other.sourcePosition)
+          && Objects.equals(this.sourcePosition, other.sourcePosition)
           && this.type == other.type) {
         return true;
       }
@@ -0,0 +1,110 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * A compact binary encoding of findings, used for spilling findings to disk.
+ * A finding is encoded as its type, message, log name and source positions;
+ * absent values are marked by a flag byte. Strings are encoded as UTF-8 with
+ * a length prefix (and thus not limited in length).
+ */
+public final class FindingCodec {
+
+  protected static final int HAS_START = 1;
+
+  protected static final int HAS_END = 2;
+
+  protected static final int HAS_LOG_NAME = 4;
+
+  protected static final Finding.Type[] TYPES = Finding.Type.values();
+
+  /**
+   * Writes the encoding of the finding
+   */
+  public static void write(DataOutput out, Finding finding) throws IOException {
+    Optional<SourcePosition> start = finding.getSourcePosition();
+    Optional<SourcePosition> end = finding.getSourcePositionEnd();
+    Optional<String> logName = finding.getLogName();
+    int flags = (start.isPresent() ? HAS_START : 0)
+        | (end.isPresent() ? HAS_END : 0)
+        | (logName.isPresent() ? HAS_LOG_NAME : 0);
+    out.writeByte(finding.getType().ordinal());
+    out.writeByte(flags);
+    writeString(out, finding.getMsg());
+    if (start.isPresent()) {
+      writePosition(out, start.get());
+    }
+    if (end.isPresent()) {
+      writePosition(out, end.get());
+    }
+    if (logName.isPresent()) {
+      writeString(out, logName.get());
+    }
+  }
+
+  /**
+   * Reads a finding written by {@link #write(DataOutput, Finding)}
+   */
+  public static Finding read(DataInput in) throws IOException {
+    int type = in.readUnsignedByte();
+    if (type >= TYPES.length) {
+      throw new IOException("Invalid finding type " + type + ".");
+    }
+    int flags = in.readUnsignedByte();
+    String msg = readString(in);
+    SourcePosition start = (flags & HAS_START) != 0 ? readPosition(in) : null;
+    SourcePosition end = (flags & HAS_END) != 0 ? readPosition(in) : null;
+    Finding finding = new Finding(TYPES[type], msg, start, end);
+    if ((flags & HAS_LOG_NAME) != 0) {
+      finding.setLogName(readString(in));
+    }
+    return finding;
+  }
+
+  protected static void writePosition(DataOutput out, SourcePosition pos) throws IOException {
+    out.writeInt(pos.getLine());
+    out.writeInt(pos.getColumn());
+    Optional<String> fileName = pos.getFileName();
+    out.writeBoolean(fileName.isPresent());
+    if (fileName.isPresent()) {
+      writeString(out, fileName.get());
+    }
+  }
+
+  protected static SourcePosition readPosition(DataInput in) throws IOException {
+    int line = in.readInt();
+    int column = in.readInt();
+    if (in.readBoolean()) {
+      return new SourcePosition(line, column, readString(in));
+    }
+    return new SourcePosition(line, column);
+  }
+
+  protected static void writeString(DataOutput out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  protected static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid string length " + length + ".");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /* Utility class. */
+  private FindingCodec() {
+  }
+
+}
@@ -0,0 +1,230 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which findings are not logged (i.e. neither stored nor passed to
+ * the hooks) as they repeat previous findings. Both modes are disabled by
+ * default:
+ * <ul>
+ *   <li>deduplication suppresses findings equal to a previous finding (same
+ *   type, message and source position)</li>
+ *   <li>a maximum per error code suppresses findings whose message starts with
+ *   an error code (e.g. <code>0xA1010</code>) once that many findings with the
+ *   code have been logged</li>
+ * </ul>
+ * The suppressed findings are counted per error code.
+ * <p>
+ * Deduplication remembers a 64-bit fingerprint per distinct finding instead
+ * of the finding itself, such that the findings (e.g. those spilled by the
+ * {@link FindingsStore}) do not stay reachable. Once
+ * {@link #MAX_FINGERPRINTS} distinct findings have been seen, the
+ * fingerprints are forgotten and deduplication starts over.
+ */
+public class FindingSuppression {
+
+  // the key of findings without error code
+  public static final String NO_ERROR_CODE = "";
+
+  protected volatile boolean deduplicate = false;
+
+  // 0 for unlimited
+  protected volatile int maxPerErrorCode = 0;
+
+  // bounds the memory of deduplication in very large runs
+  protected static final int MAX_FINGERPRINTS = 1 << 20;
+
+  protected static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+  protected static final long FNV_PRIME = 0x100000001b3L;
+
+  // the fingerprints of the logged findings
+  protected final Set<Long> seen = ConcurrentHashMap.newKeySet();
+
+  protected final Map<String, AtomicInteger> logged = new ConcurrentHashMap<>();
+
+  protected final Map<String, LongAdder> suppressed = new ConcurrentHashMap<>();
+
+  public FindingSuppression() {
+  }
+
+  /**
+   * @param other the suppression whose configuration (but not counts) is copied
+   */
+  public FindingSuppression(FindingSuppression other) {
+    this.deduplicate = other.deduplicate;
+    this.maxPerErrorCode = other.maxPerErrorCode;
+  }
+
+  public boolean isDeduplicate() {
+    return deduplicate;
+  }
+
+  public void setDeduplicate(boolean deduplicate) {
+    this.deduplicate = deduplicate;
+  }
+
+  public int getMaxPerErrorCode() {
+    return maxPerErrorCode;
+  }
+
+  /**
+   * @param max the maximum amount of logged findings per error code, or 0 for
+   *            no maximum
+   */
+  public void setMaxPerErrorCode(int max) {
+    if (max < 0) {
+      throw new IllegalArgumentException("The maximum amount of findings per error code must not be negative.");
+    }
+    this.maxPerErrorCode = max;
+  }
+
+  /**
+   * @return whether any findings may be suppressed
+   */
+  public boolean isEnabled() {
+    return deduplicate || maxPerErrorCode > 0;
+  }
+
+  /**
+   * Decides whether the finding is suppressed and counts it accordingly.
+   *
+   * @return true if the finding must not be logged
+   */
+  public boolean suppress(Finding finding) {
+    if (deduplicate) {
+      if (seen.size() >= MAX_FINGERPRINTS) {
+        seen.clear();
+      }
+      if (!seen.add(fingerprint(finding))) {
+        count(getErrorCode(finding.getMsg()));
+        return true;
+      }
+    }
+    int max = maxPerErrorCode;
+    if (max > 0) {
+      String code = getErrorCode(finding.getMsg());
+      if (!code.isEmpty()
+          && logged.computeIfAbsent(code, c -> new AtomicInteger()).incrementAndGet() > max) {
+        count(code);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return a (FNV-1a) hash of the type, message and source position of the
+   * finding, i.e. of the properties compared by {@link Finding#equals(Object)}
+   */
+  protected static long fingerprint(Finding finding) {
+    long h = mix(FNV_OFFSET, finding.getType().ordinal());
+    h = mix(h, finding.getMsg());
+    SourcePosition pos = finding.getSourcePosition().orElse(null);
+    if (pos != null) {
+      h = mix(h, pos.getLine());
+      h = mix(h, pos.getColumn());
+      h = mix(h, pos.getFileName().orElse(null));
+    }
+    return h;
+  }
+
+  protected static long mix(long h, int value) {
+    for (int i = 0; i < 4; i++) {
+      h = (h ^ (value & 0xff)) * FNV_PRIME;
+      value >>>= 8;
+    }
+    return h;
+  }
+
+  protected static long mix(long h, String value) {
+    if (value == null) {
+      return mix(h, -1);
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      h = (h ^ (c & 0xff)) * FNV_PRIME;
+      h = (h ^ (c >>> 8)) * FNV_PRIME;
+    }
+    // separate the message from the position
+    return mix(h, value.length());
+  }
+
+  protected void count(String code) {
+    suppressed.computeIfAbsent(code, c -> new LongAdder()).increment();
+  }
+
+  /**
+   * @return the error code the message starts with (<code>0x</code> followed
+   * by five hexadecimal digits), or {@link #NO_ERROR_CODE}
+   */
+  public static String getErrorCode(String msg) {
+    if (msg == null || msg.length() < 7 || msg.charAt(0) != '0' || msg.charAt(1) != 'x') {
+      return NO_ERROR_CODE;
+    }
+    for (int i = 2; i < 7; i++) {
+      if (Character.digit(msg.charAt(i), 16) < 0) {
+        return NO_ERROR_CODE;
+      }
+    }
+    return msg.substring(0, 7);
+  }
+
+  /**
+   * @return the total amount of suppressed findings
+   */
+  public long getSuppressedCount() {
+    long count = 0;
+    for (LongAdder adder : suppressed.values()) {
+      count += adder.sum();
+    }
+    return count;
+  }
+
+  /**
+   * @return the amount of suppressed findings per error code (sorted by code)
+   */
+  public Map<String, Long> getSuppressedCounts() {
+    Map<String, Long> counts = new TreeMap<>();
+    suppressed.forEach((code, adder) -> counts.put(code, adder.sum()));
+    return counts;
+  }
+
+  /**
+   * @return a summary of the suppressed findings, e.g.
+   * <code>Suppressed 1200 repeated findings (0xA1010: 1000, other: 200).</code>
+   */
+  public String getSummary() {
+    StringBuilder sb = new StringBuilder("Suppressed ").append(getSuppressedCount())
+        .append(" repeated findings");
+    Map<String, Long> counts = getSuppressedCounts();
+    if (!counts.isEmpty()) {
+      String separator = " (";
+      for (Map.Entry<String, Long> e : counts.entrySet()) {
+        sb.append(separator).append(e.getKey().isEmpty() ? "other" : e.getKey())
+            .append(": ").append(e.getValue());
+        separator = ", ";
+      }
+      sb.append(')');
+    }
+    return sb.append('.').toString();
+  }
+
+  /**
+   * Forget the logged findings and reset the counts, keeping the configuration
+   */
+  public void clear() {
+    seen.clear();
+    logged.clear();
+    suppressed.clear();
+  }
+
+}
@@ -0,0 +1,312 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Exports warnings and errors (type, message, source positions, log name,
+ * timestamp and thread) into a file for tools, which thus need not parse the
+ * formatted log output. Other messages are ignored.
+ * <p>
+ * The findings are written either as JSON lines, i.e. one JSON object per
+ * line, e.g.
+ * <pre>
+ * {"type":"ERROR","msg":"0xA0002 ...","start":{"line":3,"column":4,"file":"A.mc4"},"timestamp":1700000000000,"thread":"main"}
+ * </pre>
+ * or in a compact binary format (see {@link FindingCodec}). Both can be read
+ * using {@link FindingsExportReader}. Records are buffered and written to a
+ * single file channel once the buffer is full, on {@link #flush()} (e.g. on
+ * termination of the {@link Log}) and on {@link #close()}.
+ */
+public class FindingsExportHook implements ILogHook, AutoCloseable {
+
+  public enum Format {
+    JSON_LINES, BINARY
+  }
+
+  // the first bytes of binary exports ("MCF" and the version of the format)
+  public static final int MAGIC = 0x4D434601;
+
+  protected static final int BUFFER_SIZE = 64 * 1024;
+
+  protected final Path file;
+
+  protected final Format format;
+
+  // all fields below are guarded by this
+
+  protected final FileChannel channel;
+
+  protected final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+  protected final StringBuilder json = new StringBuilder(256);
+
+  protected final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+
+  protected final DataOutputStream recordOut = new DataOutputStream(record);
+
+  protected boolean closed = false;
+
+  /**
+   * Exports the findings as JSON lines
+   *
+   * @param fileName the export file, truncated on construction
+   */
+  public FindingsExportHook(String fileName) {
+    this(fileName, Format.JSON_LINES);
+  }
+
+  /**
+   * @param fileName the export file, truncated on construction
+   * @param format   the format of the export
+   */
+  public FindingsExportHook(String fileName, Format format) {
+    this.file = Paths.get(fileName);
+    this.format = Log.errorIfNull(format);
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      if (format == Format.BINARY) {
+        buffer.putInt(MAGIC);
+      }
+    } catch (IOException e) {
+      System.err.println("Initialization the findings export `" + fileName + "` threw ");
+      e.printStackTrace(System.err);
+      throw new MCFatalError(e.getMessage());
+    }
+  }
+
+  public Format getFormat() {
+    return format;
+  }
+
+  @Override
+  public void doWarn(Finding warn) {
+    export(warn);
+  }
+
+  @Override
+  public void doWarn(Finding warn, Throwable t) {
+    export(warn);
+  }
+
+  @Override
+  public void doError(Finding error) {
+    export(error);
+  }
+
+  @Override
+  public void doError(Finding error, Throwable t) {
+    export(error);
+  }
+
+  @Override
+  public void doErrorUser(Finding error) {
+    export(error);
+  }
+
+  @Override
+  public void doErrorUser(Finding error, Throwable t) {
+    export(error);
+  }
+
+  protected void export(Finding finding) {
+    long timestamp = System.currentTimeMillis();
+    String thread = Thread.currentThread().getName();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      try {
+        if (format == Format.BINARY) {
+          record.reset();
+          recordOut.writeLong(timestamp);
+          FindingCodec.writeString(recordOut, thread);
+          FindingCodec.write(recordOut, finding);
+          ensureCapacity(4 + record.size());
+          buffer.putInt(record.size());
+          writeRecord();
+        } else {
+          json.setLength(0);
+          appendJson(finding, timestamp, thread);
+          json.append('\n');
+          record.reset();
+          record.write(json.toString().getBytes(StandardCharsets.UTF_8));
+          ensureCapacity(record.size());
+          writeRecord();
+        }
+      } catch (IOException e) {
+        System.err.printf("Exporting finding `%s` to `%s` threw ", finding, file);
+        e.printStackTrace(System.err);
+        throw new MCFatalError(e.getMessage());
+      }
+    }
+  }
+
+  protected void ensureCapacity(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      writeBuffer();
+    }
+  }
+
+  protected void writeRecord() throws IOException {
+    if (buffer.remaining() >= record.size()) {
+      buffer.put(record.toByteArray());
+    } else {
+      // larger than the buffer
+      writeBuffer();
+      ByteBuffer large = ByteBuffer.wrap(record.toByteArray());
+      while (large.hasRemaining()) {
+        channel.write(large);
+      }
+    }
+  }
+
+  protected void writeBuffer() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  protected void appendJson(Finding finding, long timestamp, String thread) {
+    json.append("{\"type\":\"").append(finding.getType().name()).append("\",\"msg\":");
+    appendString(finding.getMsg());
+    Optional<SourcePosition> start = finding.getSourcePosition();
+    if (start.isPresent()) {
+      json.append(",\"start\":");
+      appendPosition(start.get());
+    }
+    Optional<SourcePosition> end = finding.getSourcePositionEnd();
+    if (end.isPresent()) {
+      json.append(",\"end\":");
+      appendPosition(end.get());
+    }
+    Optional<String> logName = finding.getLogName();
+    if (logName.isPresent()) {
+      json.append(",\"logName\":");
+      appendString(logName.get());
+    }
+    json.append(",\"timestamp\":").append(timestamp).append(",\"thread\":");
+    appendString(thread);
+    json.append('}');
+  }
+
+  protected void appendPosition(SourcePosition pos) {
+    json.append("{\"line\":").append(pos.getLine()).append(",\"column\":").append(pos.getColumn());
+    Optional<String> fileName = pos.getFileName();
+    if (fileName.isPresent()) {
+      json.append(",\"file\":");
+      appendString(fileName.get());
+    }
+    json.append('}');
+  }
+
+  protected void appendString(String s) {
+    json.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+      }
+    }
+    json.append('"');
+  }
+
+  /**
+   * Writes the buffered findings to the file
+   */
+  @Override
+  public synchronized void flush() {
+    if (closed) {
+      return;
+    }
+    try {
+      writeBuffer();
+    } catch (IOException e) {
+      System.err.printf("Writing the findings export `%s` threw ", file);
+      e.printStackTrace(System.err);
+      throw new MCFatalError(e.getMessage());
+    }
+  }
+
+  /**
+   * Writes the buffered findings and closes the file
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    flush();
+    closed = true;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      System.err.printf("Closing the findings export `%s` threw ", file);
+      e.printStackTrace(System.err);
+    }
+  }
+
+  @Override
+  public void doPrintln(String msg) {
+    // empty
+  }
+
+  @Override
+  public void doErrPrint(String msg) {
+    // empty
+  }
+
+  @Override
+  public void doPrintStackTrace(Throwable t) {
+    // empty
+  }
+
+  @Override
+  public void doErrPrintStackTrace(Throwable t) {
+    // empty
+  }
+
+  @Override
+  public void doPrint(String msg) {
+    // empty
+  }
+
+}
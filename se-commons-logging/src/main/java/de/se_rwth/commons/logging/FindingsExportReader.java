@@ -0,0 +1,261 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads the findings exported by {@link FindingsExportHook}. The format
+ * (binary or JSON lines) is detected from the first bytes of the file.
+ */
+public final class FindingsExportReader {
+
+  protected static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * @return all findings of the export file
+   */
+  public static List<ExportedFinding> read(Path file) throws IOException {
+    List<ExportedFinding> findings = new ArrayList<>();
+    forEach(file, findings::add);
+    return findings;
+  }
+
+  /**
+   * Streams the findings of the export file to the action, without keeping
+   * them in memory
+   */
+  public static void forEach(Path file, Consumer<? super ExportedFinding> action) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+      in.mark(4);
+      DataInputStream data = new DataInputStream(in);
+      boolean binary;
+      try {
+        binary = data.readInt() == FindingsExportHook.MAGIC;
+      } catch (EOFException e) {
+        binary = false;
+      }
+      if (binary) {
+        readBinary(data, action);
+      } else {
+        in.reset();
+        readJsonLines(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE), action);
+      }
+    }
+  }
+
+  protected static void readBinary(DataInputStream in, Consumer<? super ExportedFinding> action) throws IOException {
+    while (true) {
+      int length;
+      try {
+        length = in.readInt();
+      } catch (EOFException e) {
+        return;
+      }
+      if (length < 0) {
+        throw new IOException("Invalid record length " + length + ".");
+      }
+      // the length allows tools to skip records; the record is read in place
+      long timestamp = in.readLong();
+      String thread = FindingCodec.readString(in);
+      action.accept(new ExportedFinding(FindingCodec.read(in), timestamp, thread));
+    }
+  }
+
+  protected static void readJsonLines(BufferedReader in, Consumer<? super ExportedFinding> action) throws IOException {
+    String line;
+    int lineNumber = 0;
+    while ((line = in.readLine()) != null) {
+      lineNumber++;
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      try {
+        action.accept(toFinding(new JsonParser(line).parseObject()));
+      } catch (RuntimeException e) {
+        throw new IOException("Invalid finding in line " + lineNumber + ": " + e.getMessage(), e);
+      }
+    }
+  }
+
+  protected static ExportedFinding toFinding(Map<String, Object> json) {
+    Finding finding = new Finding(Finding.Type.valueOf((String) json.get("type")), (String) json.get("msg"),
+        toPosition(json.get("start")), toPosition(json.get("end")));
+    finding.setLogName((String) json.get("logName"));
+    Object timestamp = json.get("timestamp");
+    return new ExportedFinding(finding, timestamp == null ? 0 : (Long) timestamp, (String) json.get("thread"));
+  }
+
+  @SuppressWarnings("unchecked")
+  protected static SourcePosition toPosition(Object json) {
+    if (json == null) {
+      return null;
+    }
+    Map<String, Object> pos = (Map<String, Object>) json;
+    int line = ((Long) pos.get("line")).intValue();
+    int column = ((Long) pos.get("column")).intValue();
+    String file = (String) pos.get("file");
+    return file == null ? new SourcePosition(line, column) : new SourcePosition(line, column, file);
+  }
+
+  /**
+   * Parses the JSON objects written by the export hook, i.e. objects of
+   * strings, integral numbers, booleans, null and nested objects.
+   */
+  protected static class JsonParser {
+
+    protected final String s;
+
+    protected int pos = 0;
+
+    protected JsonParser(String s) {
+      this.s = s;
+    }
+
+    protected Map<String, Object> parseObject() {
+      Map<String, Object> object = new HashMap<>();
+      expect('{');
+      skipWhitespace();
+      if (peek() == '}') {
+        pos++;
+        return object;
+      }
+      while (true) {
+        skipWhitespace();
+        String key = parseString();
+        skipWhitespace();
+        expect(':');
+        object.put(key, parseValue());
+        skipWhitespace();
+        char c = next();
+        if (c == '}') {
+          return object;
+        } else if (c != ',') {
+          throw error("Expected , or }");
+        }
+      }
+    }
+
+    protected Object parseValue() {
+      skipWhitespace();
+      char c = peek();
+      if (c == '"') {
+        return parseString();
+      } else if (c == '{') {
+        return parseObject();
+      } else if (c == '-' || (c >= '0' && c <= '9')) {
+        int start = pos;
+        pos++;
+        while (pos < s.length() && Character.isDigit(s.charAt(pos))) {
+          pos++;
+        }
+        return Long.parseLong(s.substring(start, pos));
+      } else if (s.startsWith("null", pos)) {
+        pos += 4;
+        return null;
+      } else if (s.startsWith("true", pos)) {
+        pos += 4;
+        return Boolean.TRUE;
+      } else if (s.startsWith("false", pos)) {
+        pos += 5;
+        return Boolean.FALSE;
+      }
+      throw error("Unexpected value");
+    }
+
+    protected String parseString() {
+      expect('"');
+      StringBuilder sb = null;
+      int start = pos;
+      while (true) {
+        char c = next();
+        if (c == '"') {
+          return sb == null ? s.substring(start, pos - 1) : sb.toString();
+        }
+        if (c == '\\') {
+          if (sb == null) {
+            sb = new StringBuilder(s.substring(start, pos - 1));
+          }
+          char e = next();
+          switch (e) {
+            case 'n':
+              sb.append('\n');
+              break;
+            case 'r':
+              sb.append('\r');
+              break;
+            case 't':
+              sb.append('\t');
+              break;
+            case 'b':
+              sb.append('\b');
+              break;
+            case 'f':
+              sb.append('\f');
+              break;
+            case 'u':
+              if (pos + 4 > s.length()) {
+                throw error("Invalid escape");
+              }
+              sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+              pos += 4;
+              break;
+            default:
+              sb.append(e);
+          }
+        } else if (sb != null) {
+          sb.append(c);
+        }
+      }
+    }
+
+    protected void skipWhitespace() {
+      while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+        pos++;
+      }
+    }
+
+    protected char peek() {
+      if (pos >= s.length()) {
+        throw error("Unexpected end");
+      }
+      return s.charAt(pos);
+    }
+
+    protected char next() {
+      char c = peek();
+      pos++;
+      return c;
+    }
+
+    protected void expect(char c) {
+      if (next() != c) {
+        throw error("Expected " + c);
+      }
+    }
+
+    protected IllegalArgumentException error(String msg) {
+      return new IllegalArgumentException(msg + " at position " + pos + ".");
+    }
+  }
+
+  /* Utility class. */
+  private FindingsExportReader() {
+  }
+
+}
@@ -0,0 +1,484 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An append-only list of findings, which may be added to concurrently by
+ * multiple threads without locking.
+ * <p>
+ * The findings are stored in fixed-size chunks, such that growing the list
+ * never copies findings. In addition, the amount of findings is counted per
+ * {@link Finding.Type}, which makes {@link #getErrorCount()} constant-time.
+ * Note: Changing the type of a finding after it has been added is not
+ * reflected by the counters.
+ * <p>
+ * The amount of findings kept in memory may be limited. Further findings are
+ * spilled to an append-only file (see {@link FindingCodec}), such that they
+ * are not kept reachable, but still counted and returned by
+ * {@link #iterator()} and {@link #stream()}, which read them from the file in
+ * batches. Accessing spilled findings by index reads the file up to the
+ * finding and is slow, thus the store is no {@link java.util.RandomAccess}
+ * list.
+ */
+public class FindingsStore extends AbstractList<Finding> {
+
+  protected static final int CHUNK_BITS = 10;
+
+  protected static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  protected static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  // keep all findings in memory
+  public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+  // the amount of spilled findings read at once by iterators
+  protected static final int SPILL_BATCH_SIZE = 256;
+
+  /**
+   * The actual storage. Clearing the store replaces the segment as a whole.
+   */
+  protected static class Segment {
+
+    // grown (copy-on-write) under the lock of the segment
+    protected volatile AtomicReferenceArray<Finding>[] chunks = newChunks(16);
+
+    // the next free index
+    protected final AtomicInteger next = new AtomicInteger();
+
+    protected final LongAdder[] counters = new LongAdder[Finding.Type.values().length];
+
+    // the spilled findings, guarded by the spill lock
+    protected final Object spillLock = new Object();
+
+    protected Path spillPath;
+
+    protected boolean temporary;
+
+    protected DataOutputStream spillOut;
+
+    protected final ByteArrayOutputStream record = new ByteArrayOutputStream();
+
+    protected int spilled = 0;
+
+    protected boolean closed = false;
+
+    protected Segment() {
+      for (int i = 0; i < counters.length; i++) {
+        counters[i] = new LongAdder();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static AtomicReferenceArray<Finding>[] newChunks(int length) {
+      return (AtomicReferenceArray<Finding>[]) new AtomicReferenceArray<?>[length];
+    }
+
+    protected AtomicReferenceArray<Finding> chunk(int index) {
+      AtomicReferenceArray<Finding>[] c = chunks;
+      if (index < c.length && c[index] != null) {
+        return c[index];
+      }
+      synchronized (this) {
+        c = chunks;
+        if (index >= c.length) {
+          AtomicReferenceArray<Finding>[] grown = newChunks(Math.max(c.length * 2, index + 1));
+          System.arraycopy(c, 0, grown, 0, c.length);
+          c = grown;
+        }
+        if (c[index] == null) {
+          c[index] = new AtomicReferenceArray<>(CHUNK_SIZE);
+        }
+        chunks = c;
+        return c[index];
+      }
+    }
+
+    protected void spill(Finding finding, Path file) {
+      synchronized (spillLock) {
+        if (closed) {
+          // cleared concurrently
+          return;
+        }
+        try {
+          if (spillOut == null) {
+            temporary = file == null;
+            spillPath = temporary ? Files.createTempFile("findings", ".bin") : file;
+            if (temporary) {
+              spillPath.toFile().deleteOnExit();
+            } else if (spillPath.getParent() != null) {
+              Files.createDirectories(spillPath.getParent());
+            }
+            spillOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillPath)));
+          }
+          record.reset();
+          FindingCodec.write(new DataOutputStream(record), finding);
+          spillOut.writeInt(record.size());
+          record.writeTo(spillOut);
+          spilled++;
+          spillLock.notifyAll();
+        } catch (IOException e) {
+          throw new MCFatalError("Spilling a finding to `" + spillPath + "` threw " + e);
+        }
+      }
+    }
+
+    /**
+     * Reads up to max spilled findings, starting at the given record and file offset
+     *
+     * @return the offset after the last finding read
+     */
+    protected long readSpilled(int from, long offset, int max, List<Finding> result) {
+      synchronized (spillLock) {
+        while (spilled < from + max && !closed) {
+          // wait for findings whose index has been reserved, but which are not yet spilled
+          try {
+            spillLock.wait(10);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+          }
+        }
+        if (closed) {
+          throw new IllegalStateException("The findings have been cleared.");
+        }
+        try {
+          spillOut.flush();
+        } catch (IOException e) {
+          throw new MCFatalError("Spilling findings to `" + spillPath + "` threw " + e);
+        }
+      }
+      try (FileChannel channel = FileChannel.open(spillPath, StandardOpenOption.READ)) {
+        channel.position(offset);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        for (int i = 0; i < max; i++) {
+          int length = in.readInt();
+          byte[] bytes = new byte[length];
+          in.readFully(bytes);
+          result.add(FindingCodec.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+          offset += 4 + length;
+        }
+        return offset;
+      } catch (IOException e) {
+        throw new MCFatalError("Reading the findings spilled to `" + spillPath + "` threw " + e);
+      }
+    }
+
+    protected void close() {
+      synchronized (spillLock) {
+        closed = true;
+        if (spillOut != null) {
+          try {
+            spillOut.close();
+            if (temporary) {
+              Files.deleteIfExists(spillPath);
+            }
+          } catch (IOException e) {
+            // the findings are discarded anyway
+          }
+        }
+      }
+    }
+  }
+
+  // the amount of findings kept in memory
+  protected final int retained;
+
+  // the file to spill further findings to, or null for a temporary file
+  protected final Path spillFile;
+
+  protected volatile Segment segment = new Segment();
+
+  /**
+   * Creates a store keeping all findings in memory
+   */
+  public FindingsStore() {
+    this(UNBOUNDED, null);
+  }
+
+  /**
+   * Creates a store keeping the first findings in memory and spilling further
+   * findings to a temporary file
+   *
+   * @param retained the amount of findings kept in memory
+   */
+  public FindingsStore(int retained) {
+    this(retained, null);
+  }
+
+  /**
+   * Creates a store keeping the first findings in memory and spilling further
+   * findings to the given file, which is overwritten
+   *
+   * @param retained  the amount of findings kept in memory
+   * @param spillFile the file to spill further findings to, or null for a
+   *                  temporary file
+   */
+  public FindingsStore(int retained, Path spillFile) {
+    if (retained < 0) {
+      throw new IllegalArgumentException("The amount of retained findings must not be negative.");
+    }
+    this.retained = retained;
+    this.spillFile = spillFile;
+  }
+
+  /**
+   * @return an empty store with the same retention, spilling to a temporary file
+   */
+  public FindingsStore emptyCopy() {
+    return new FindingsStore(retained);
+  }
+
+  /**
+   * @return the amount of findings kept in memory
+   */
+  public int getRetained() {
+    return retained;
+  }
+
+  /**
+   * @return the amount of findings spilled to disk
+   */
+  public int getSpilledCount() {
+    return Math.max(0, size() - retained);
+  }
+
+  @Override
+  public boolean add(Finding finding) {
+    Log.errorIfNull(finding);
+    Segment s = this.segment;
+    int index = s.next.getAndIncrement();
+    if (index < retained) {
+      s.chunk(index >>> CHUNK_BITS).set(index & CHUNK_MASK, finding);
+    } else {
+      s.spill(finding, spillFile);
+    }
+    s.counters[finding.getType().ordinal()].increment();
+    return true;
+  }
+
+  @Override
+  public Finding get(int index) {
+    Segment s = this.segment;
+    if (index < 0 || index >= s.next.get()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + s.next.get());
+    }
+    return get(s, index);
+  }
+
+  protected Finding get(Segment s, int index) {
+    if (index >= retained) {
+      // skip the preceding spilled findings
+      int from = 0;
+      long offset = 0;
+      List<Finding> batch = new ArrayList<>(SPILL_BATCH_SIZE);
+      while (true) {
+        batch.clear();
+        int max = Math.min(SPILL_BATCH_SIZE, index - retained - from + 1);
+        offset = s.readSpilled(from, offset, max, batch);
+        from += max;
+        if (from > index - retained) {
+          return batch.get(max - 1);
+        }
+      }
+    }
+    return getRetained(s, index);
+  }
+
+  protected Finding getRetained(Segment s, int index) {
+    AtomicReferenceArray<Finding> chunk = s.chunk(index >>> CHUNK_BITS);
+    Finding f = chunk.get(index & CHUNK_MASK);
+    while (f == null) {
+      // the index is reserved, but the adding thread has not yet stored the finding
+      Thread.yield();
+      f = chunk.get(index & CHUNK_MASK);
+    }
+    return f;
+  }
+
+  @Override
+  public int size() {
+    return segment.next.get();
+  }
+
+  /**
+   * Streams the findings kept in memory, followed by the spilled findings,
+   * which are read in batches. The iterator covers the findings added before
+   * its creation.
+   */
+  @Override
+  public Iterator<Finding> iterator() {
+    Segment s = this.segment;
+    return iterator(s, s.next.get());
+  }
+
+  protected Iterator<Finding> iterator(Segment s, int size) {
+    int inMemory = Math.min(size, retained);
+    return new Iterator<Finding>() {
+      int index = 0;
+
+      // the spilled findings read but not yet returned
+      final List<Finding> batch = new ArrayList<>();
+
+      int batchIndex = 0;
+
+      long offset = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public Finding next() {
+        if (index >= size) {
+          throw new NoSuchElementException();
+        }
+        if (index < inMemory) {
+          return getRetained(s, index++);
+        }
+        if (batchIndex == batch.size()) {
+          batch.clear();
+          batchIndex = 0;
+          int from = index - inMemory;
+          offset = s.readSpilled(from, offset, Math.min(SPILL_BATCH_SIZE, size - index), batch);
+        }
+        index++;
+        return batch.get(batchIndex++);
+      }
+    };
+  }
+
+  /**
+   * Streams the findings via {@link #iterator()}, i.e. reads the spilled
+   * findings in batches instead of by index
+   */
+  @Override
+  public Spliterator<Finding> spliterator() {
+    Segment s = this.segment;
+    int size = s.next.get();
+    return Spliterators.spliterator(iterator(s, size), size, Spliterator.ORDERED);
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    int i = 0;
+    for (Finding f : this) {
+      if (f.equals(o)) {
+        return i;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    int i = 0;
+    int last = -1;
+    for (Finding f : this) {
+      if (f.equals(o)) {
+        last = i;
+      }
+      i++;
+    }
+    return last;
+  }
+
+  /**
+   * @return an unmodifiable view of the findings added before this call,
+   * which is not affected by findings added concurrently. Unlike
+   * {@link #snapshot()}, the findings are not copied, i.e. spilled findings
+   * are read from the file when the view is iterated. The view must not be
+   * used after the store has been cleared.
+   */
+  public List<Finding> view() {
+    Segment s = this.segment;
+    int size = s.next.get();
+    return new AbstractList<Finding>() {
+      @Override
+      public Finding get(int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return FindingsStore.this.get(s, index);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public Iterator<Finding> iterator() {
+        return FindingsStore.this.iterator(s, size);
+      }
+
+      @Override
+      public Spliterator<Finding> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+      }
+    };
+  }
+
+  /**
+   * @return an unmodifiable copy of the findings added before this call,
+   * which is not affected by findings added concurrently
+   */
+  public List<Finding> snapshot() {
+    List<Finding> copy = new ArrayList<>(Math.min(size(), retained));
+    for (Finding f : this) {
+      copy.add(f);
+    }
+    return Collections.unmodifiableList(copy);
+  }
+
+  /**
+   * Removes all findings (including the spilled ones) and resets the counters
+   */
+  @Override
+  public void clear() {
+    Segment old = this.segment;
+    this.segment = new Segment();
+    old.close();
+  }
+
+  /**
+   * @return the amount of findings of the given type
+   */
+  public long getCount(Finding.Type type) {
+    return segment.counters[type.ordinal()].sum();
+  }
+
+  /**
+   * @return the amount of errors, i.e. internal and user errors
+   */
+  public long getErrorCount() {
+    Segment s = this.segment;
+    return s.counters[Finding.Type.ERROR.ordinal()].sum()
+        + s.counters[Finding.Type.USER_ERROR.ordinal()].sum();
+  }
+
+}
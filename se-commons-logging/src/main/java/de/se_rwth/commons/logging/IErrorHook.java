@@ -1,6 +1,8 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.se_rwth.commons.logging;
 
+import java.util.List;
+
 /**
  * An error hook handles program termination if fail quick is enabled, the
  * program is not running in interactive mode, and an error occurred.
@@ -13,4 +15,18 @@ public interface IErrorHook {
 
   void terminate();
 
+  /**
+   * Handles the termination after the log hooks have been flushed. The
+   * findings are a view of the findings logged until termination, which is
+   * not changed by threads which are still logging. Findings spilled to disk
+   * (see {@link Log#retainFindings}) are read lazily, thus implementations
+   * should stream the findings instead of copying them.
+   * By default, this delegates to {@link #terminate()}.
+   *
+   * @param findings the findings logged until termination
+   */
+  default void terminate(List<Finding> findings) {
+    terminate();
+  }
+
 }
@@ -14,7 +14,7 @@ import de.se_rwth.commons.SourcePosition;
 public interface ILogHook {
 
   default void doTrace(String msg, String logName) {
-    doPrintln(String.format("[TRACE]  %s %s", logName, msg));
+    doPrintln(MessageFormatter.line("[TRACE]  ", logName, msg));
   }
 
   default void doTrace(String msg, Throwable t, String logName) {
@@ -23,20 +23,18 @@ public interface ILogHook {
   }
 
   default void doDebug(String msg, String logName) {
-    doPrintln(String.format("[DEBUG]  %s %s", logName, msg));
+    doPrintln(MessageFormatter.line("[DEBUG]  ", logName, msg));
   }
 
   default void doDebug(String msg, SourcePosition pos, String logName) {
-    doPrintln(String.format("[DEBUG]  %s %s:%s", logName, pos.toString(), msg));
+    doPrintln(MessageFormatter.line("[DEBUG]  ", logName, pos, msg));
   }
 
   default void doDebug(String msg,
                        SourcePosition start,
                        SourcePosition end,
                        String logName) {
-    doPrintln(String.format("[DEBUG]  %s %s - %s:%s",
-      logName, start.toString(), end.toString(), msg)
-    );
+    doPrintln(MessageFormatter.line("[DEBUG]  ", logName, start, end, msg));
   }
 
   default void doDebug(String msg, Throwable t, String logName) {
@@ -45,7 +43,7 @@ public interface ILogHook {
   }
 
   default void doInfo(String msg, String logName) {
-    doPrintln(String.format("[INFO]  %s %s", logName, msg));
+    doPrintln(MessageFormatter.line("[INFO]  ", logName, msg));
   }
 
   default void doInfo(String msg, Throwable t, String logName) {
@@ -54,29 +52,29 @@ public interface ILogHook {
   }
 
   default void doWarn(Finding warn) {
-    doPrintln(String.format("[WARN]  %s", warn));
+    doPrintln(MessageFormatter.line("[WARN]  ", warn));
   }
 
   default void doWarn(Finding warn, Throwable t) {
-    doPrintln(String.format("[WARN]  %s", warn));
+    doPrintln(MessageFormatter.line("[WARN]  ", warn));
     doPrintStackTrace(t);
   }
 
   default void doError(Finding error) {
-    doPrintln(String.format("[ERROR]  %s", error));
+    doPrintln(MessageFormatter.line("[ERROR]  ", error));
   }
 
   default void doError(Finding error, Throwable t) {
-    doPrintln(String.format("[ERROR]  %s", error));
+    doPrintln(MessageFormatter.line("[ERROR]  ", error));
     doErrPrintStackTrace(t);
   }
 
   default void doErrorUser(Finding error) {
-    doPrintln(String.format("[USER-ERROR]  %s", error));
+    doPrintln(MessageFormatter.line("[USER-ERROR]  ", error));
   }
 
   default void doErrorUser(Finding error, Throwable t) {
-    doPrintln(String.format("[USER-ERROR]  %s", error));
+    doPrintln(MessageFormatter.line("[USER-ERROR]  ", error));
     doErrPrintStackTrace(t);
   }
 
@@ -90,4 +88,24 @@ public interface ILogHook {
 
   void doPrint(String msg);
 
+  /**
+   * Writes all messages which have been buffered by this hook, e.g. before
+   * the application terminates. Hooks without buffers need not implement this.
+   */
+  default void flush() {
+  }
+
+  /**
+   * Writes all messages which have been buffered by this hook, but waits at
+   * most the given time, e.g. for an asynchronous writer. By default, this
+   * delegates to {@link #flush()}.
+   *
+   * @param timeoutMillis the max. time to wait
+   * @return true, if all messages have been written
+   */
+  default boolean flush(long timeoutMillis) {
+    flush();
+    return true;
+  }
+
 }
@@ -0,0 +1,22 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.util.List;
+
+/**
+ * A metrics sink handles the summaries of the metrics recorded during a run,
+ * e.g. by printing them as a table ({@link MetricsTableSink}).
+ * <p>
+ * Implementations of this interface can be added and removed via
+ * {@link Metrics#addSink(IMetricsSink)} and
+ * {@link Metrics#removeSink(IMetricsSink)}, respectively, and are invoked by
+ * {@link Metrics#report()}.
+ */
+public interface IMetricsSink {
+
+  /**
+   * @param stats the summaries of all metrics, sorted by name
+   */
+  void report(List<MetricStat> stats);
+
+}
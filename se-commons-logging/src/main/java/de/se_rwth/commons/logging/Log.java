@@ -3,9 +3,13 @@ package de.se_rwth.commons.logging;
 
 import de.se_rwth.commons.SourcePosition;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Provides a centralized logging component. Subclasses may provide customized
@@ -15,17 +19,46 @@ import java.util.List;
  * directly (@see Log#init())
  * <br>
  */
-public class Log {
+public class Log implements Cloneable {
 
   // the single static delegator target
   protected static Log log;
 
+  // the delegator target of threads running within a LogContext
+  protected static final ThreadLocal<LogContext> CONTEXT = new ThreadLocal<>();
+
+  // > 0 while a lazy trace or debug message, which has already been sampled,
+  // is passed to doTrace/doDebug (only used if sampling is enabled)
+  protected static final ThreadLocal<int[]> SAMPLED = ThreadLocal.withInitial(() -> new int[1]);
+
+  // the levels which may be enabled for some log name, see levelMask
+  protected static final int TRACE_MASK = 1;
+  protected static final int DEBUG_MASK = 2;
+  protected static final int INFO_MASK = 4;
+  protected static final int ALL_MASK = TRACE_MASK | DEBUG_MASK | INFO_MASK;
+
+  // checked by the static trace, debug and info methods before the Log is
+  // resolved, such that messages of disabled levels cost a single field load
+  // (permissive while no Log is set or any LogContext is open)
+  protected static volatile int levelMask = ALL_MASK;
+
+  // the amount of open LogContexts (of all threads)
+  protected static final AtomicInteger OPEN_CONTEXTS = new AtomicInteger();
+
+  // dispatched via an array snapshot; use a LogHookList for lock-free dispatch
   protected List<ILogHook> logHooks;
 
   protected IErrorHook errorHook;
 
   // Getter for the underlying Log. 
   protected static Log getLog() {
+    LogContext context = CONTEXT.get();
+    if (context != null) {
+      if (context.log == null) {
+        Log.init();
+      }
+      return context.log;
+    }
     ensureInitialization();
     return log;
   }
@@ -50,7 +83,7 @@ public class Log {
     l.isTRACE = false;
     l.isDEBUG = false;
     l.isINFO = true;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new DefaultErrorHook();
     Log.setLog(l);
@@ -65,7 +98,7 @@ public class Log {
     l.isDEBUG = true;
     l.isTRACE = true;
     l.isINFO = true;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new DefaultErrorHook();
     Log.setLog(l);
@@ -80,7 +113,7 @@ public class Log {
     l.isTRACE = false;
     l.isDEBUG = false;
     l.isINFO = false;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new DefaultErrorHook();
     Log.setLog(l);
@@ -95,7 +128,7 @@ public class Log {
     l.isTRACE = true;
     l.isDEBUG = false;
     l.isINFO = false;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     l.errorHook = new DefaultErrorHook();
     Log.setLog(l);
@@ -122,7 +155,7 @@ public class Log {
     l.isDEBUG = false;
     l.isINFO = true;
     l.isInteractive = true;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(new ConsoleLogHook());
     Log.setLog(l);
   }
@@ -133,14 +166,22 @@ public class Log {
    * @param log the new central logging to use; must not be null
    */
   // Allows to set an individually defined Log instance
+  // (within a LogContext, only the Log of the context is replaced)
   protected static final void setLog(Log log) {
-    if (Log.log != null && log != null) {
-      if (!Log.log.getClass().equals(log.getClass())) {
-        debug("Switching logging component from " + Log.log.getClass().getName() + " to "
+    LogContext context = CONTEXT.get();
+    Log current = context != null ? context.log : Log.log;
+    if (current != null && log != null) {
+      if (!current.getClass().equals(log.getClass())) {
+        debug("Switching logging component from " + current.getClass().getName() + " to "
             + log.getClass().getName(), Log.class.getName());
       }
     }
-    Log.log = log;
+    if (context != null) {
+      context.log = log;
+    } else {
+      Log.log = log;
+    }
+    updateLevelMask();
   }
 
   /**
@@ -148,10 +189,130 @@ public class Log {
    * Note: It does not further clean up after the Logger
    */
   public static void internalRemove() {
+    LogContext context = CONTEXT.get();
+    Log current = context != null ? context.log : Log.log;
     debug("Resetting logging component from " +
-                    (Log.log != null ? Log.log.getClass().getName() : "none"),
+                    (current != null ? current.getClass().getName() : "none"),
             Log.class.getName());
-    Log.log = null;
+    if (context != null) {
+      context.log = null;
+    } else {
+      Log.log = null;
+    }
+    updateLevelMask();
+  }
+
+  /**
+   * Recomputes the mask of levels checked by the static methods before the
+   * Log is resolved (see {@link #hasStableLevels()}).
+   */
+  protected static synchronized void updateLevelMask() {
+    Log l = Log.log;
+    levelMask = l == null || OPEN_CONTEXTS.get() > 0 ? ALL_MASK : l.doGetLevelMask();
+  }
+
+  /**
+   * @return the levels which may be enabled for any log name, i.e. the global
+   * levels and the levels of individual log names. Levels whose checks are
+   * overridden by a subclass are always included. All levels are included
+   * unless this Log {@link #hasStableLevels() has stable levels}.
+   */
+  protected int doGetLevelMask() {
+    if (!hasStableLevels()) {
+      return ALL_MASK;
+    }
+    int mask = (isTRACE ? TRACE_MASK : 0) | (isDEBUG ? DEBUG_MASK : 0) | (isINFO ? INFO_MASK : 0);
+    for (LogLevel level : logLevels.getConfiguredLevels()) {
+      mask |= (level.isTraceEnabled() ? TRACE_MASK : 0) | (level.isDebugEnabled() ? DEBUG_MASK : 0)
+          | (level.isInfoEnabled() ? INFO_MASK : 0);
+    }
+    if (overrides("doIsTraceEnabled", String.class) || overrides("doTrace", String.class, String.class)) {
+      mask |= TRACE_MASK;
+    }
+    if (overrides("doIsDebugEnabled", String.class) || overrides("doDebug", String.class, String.class)) {
+      mask |= DEBUG_MASK;
+    }
+    if (overrides("doIsInfoEnabled", String.class) || overrides("doInfo", String.class, String.class)) {
+      mask |= INFO_MASK;
+    }
+    return mask;
+  }
+
+  /**
+   * Subclasses may change their levels (isTRACE, isDEBUG, isINFO) at any
+   * time, so only Log and LogStub, whose levels are changed via the static
+   * methods, have stable levels. Subclasses which only change their levels
+   * before {@link #setLog(Log)} may opt in by overriding this method.
+   *
+   * @return whether the static methods may skip levels which are disabled
+   * for all log names without resolving this Log
+   */
+  protected boolean hasStableLevels() {
+    return getClass() == Log.class || getClass() == LogStub.class;
+  }
+
+  /**
+   * @return whether a subclass declares the given method of Log
+   */
+  protected boolean overrides(String method, Class<?>... parameterTypes) {
+    for (Class<?> c = getClass(); c != Log.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(method, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // continue with the superclass
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Runs the current thread within a new {@link LogContext} until the
+   * returned context is closed. The Log of the context is a copy of the
+   * current Log (same levels, hooks, error hook and fail quick setting),
+   * but without any findings. Changes to the Log within the context do not
+   * affect other threads.
+   *
+   * @return the context, to be closed by the current thread
+   */
+  public static LogContext withContext() {
+    return withContext(getLog().copyForContext());
+  }
+
+  /**
+   * Runs the current thread within a new {@link LogContext}, using the given
+   * Log, until the returned context is closed.
+   *
+   * @param log the Log of the context
+   * @return the context, to be closed by the current thread
+   */
+  public static LogContext withContext(Log log) {
+    LogContext context = new LogContext(log, CONTEXT.get());
+    CONTEXT.set(context);
+    // the Logs of contexts may enable other levels than the static one
+    OPEN_CONTEXTS.incrementAndGet();
+    updateLevelMask();
+    return context;
+  }
+
+  /**
+   * @return a copy of this Log with its own (empty) findings, (copied) hooks
+   * and (copied) levels, used for a new {@link LogContext}
+   */
+  protected Log copyForContext() {
+    Log copy;
+    try {
+      copy = (Log) super.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+    copy.findings = this.findings instanceof FindingsStore
+        ? ((FindingsStore) this.findings).emptyCopy() : new FindingsStore();
+    copy.logHooks = new LogHookList(this.logHooks);
+    copy.logLevels = new LogLevelConfiguration(this.logLevels);
+    copy.suppression = new FindingSuppression(this.suppression);
+    copy.sampling = new LogSampling(this.sampling);
+    return copy;
   }
 
   // terminate immediately on errors?
@@ -165,25 +326,75 @@ public class Log {
   protected boolean isTRACE = false;
   protected boolean isINFO = false;
 
-  // While we do not guarantee thread safety, logging multiple warnings/errors should not result in errors
-  protected List<Finding> findings = Collections.synchronizedList(new ArrayList<>());
+  // levels of individual log names, overriding the global levels above
+  protected LogLevelConfiguration logLevels = new LogLevelConfiguration();
+
+  // Append-only and lock-free, as warnings/errors may be logged by multiple threads.
+  // Subclasses may assign another (thread-safe) list.
+  protected List<Finding> findings = new FindingsStore();
+
+  // repeated findings which are not logged (disabled by default)
+  protected FindingSuppression suppression = new FindingSuppression();
+
+  // trace and debug messages which are not logged (disabled by default)
+  protected LogSampling sampling = new LogSampling();
+
+  public static final long DEFAULT_TERMINATION_TIMEOUT = 10_000; // ms
+
+  // max. time to wait for the hooks to be flushed before terminating
+  protected long terminationTimeout = DEFAULT_TERMINATION_TIMEOUT;
+
+  // serializes the terminations of concurrently failing threads
+  protected static final Object TERMINATION_LOCK = new Object();
 
   /* Utility class. */
   protected Log() {
     // TODO: Workaround by ALU to fix the NPE
-    this.logHooks = new ArrayList<>();
+    this.logHooks = new LogHookList();
     this.logHooks.add(new ConsoleLogHook());
     this.errorHook = new DefaultErrorHook();
     // TODO: END Workaround by ALU to fix the NPE
   }
 
+  /**
+   * Set the level of a log name and all log names below it, e.g.
+   * <code>setLogLevel("de.monticore.symboltable", LogLevel.TRACE)</code>.
+   * Log names without a configured level use the global levels.
+   *
+   * @param logName the log name (prefix)
+   * @param level   the level to use
+   */
+  public static final void setLogLevel(String logName, LogLevel level) {
+    getLog().logLevels.setLevel(logName, level);
+    updateLevelMask();
+  }
+
+  /**
+   * Load levels of log names from a properties file with entries of the form
+   * <code>logName=LEVEL</code> (see {@link #setLogLevel(String, LogLevel)}).
+   *
+   * @param propertiesFile the properties file
+   */
+  public static final void loadLogLevels(Path propertiesFile) {
+    getLog().logLevels.load(propertiesFile);
+    updateLevelMask();
+  }
+
+  /**
+   * Remove all levels of individual log names.
+   */
+  public static final void clearLogLevels() {
+    getLog().logLevels.clear();
+    updateLevelMask();
+  }
+
   /**
    * Is level TRACE enabled for the given log name?
    *
    * @return whether level TRACE is enabled for the given log name
    */
   public static final boolean isTraceEnabled(String logName) {
-    return getLog().doIsTraceEnabled(logName);
+    return (levelMask & TRACE_MASK) != 0 && getLog().doIsTraceEnabled(logName);
   }
 
   /**
@@ -192,7 +403,8 @@ public class Log {
    * @return whether level TRACE is enabled for the given log name
    */
   protected boolean doIsTraceEnabled(String logName) {
-    return isTRACE;
+    LogLevel level = logLevels.getLevel(logName);
+    return level == null ? isTRACE : level.isTraceEnabled();
   }
 
   /**
@@ -202,15 +414,47 @@ public class Log {
    * @param logName the log name to use
    */
   public static final void trace(String msg, String logName) {
-    getLog().doTrace(msg, logName);
+    if ((levelMask & TRACE_MASK) != 0) {
+      getLog().doTrace(msg, logName);
+    }
   }
 
   /**
    * Log to the specified log with level TRACE.
    */
   protected void doTrace(String msg, String logName) {
-    if (doIsTraceEnabled(logName)) {
-      logHooks.forEach(hook -> hook.doTrace(msg, logName));
+    if (doIsTraceEnabled(logName) && !isSampledOut(logName)) {
+      dispatchTrace(msg, logName);
+    }
+  }
+
+  /**
+   * Log a trace message (of the lazy overloads or with an exception), which
+   * has passed the checks (including sampling), via
+   * {@link #doTrace(String, String)}, such that overrides apply. The message
+   * is not sampled again.
+   */
+  protected void doTraceSampled(String msg, String logName) {
+    if (!this.sampling.isEnabled()) {
+      doTrace(msg, logName);
+      return;
+    }
+    int[] depth = SAMPLED.get();
+    depth[0]++;
+    try {
+      doTrace(msg, logName);
+    } finally {
+      depth[0]--;
+    }
+  }
+
+  /**
+   * Pass a trace message to the hooks, which has passed the checks
+   */
+  protected void dispatchTrace(String msg, String logName) {
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doTrace(msg, logName);
     }
   }
 
@@ -222,16 +466,81 @@ public class Log {
    * @param logName the log name to use
    */
   public static final void trace(String msg, Throwable t, String logName) {
-    getLog().doTrace(msg, t, logName);
+    if ((levelMask & TRACE_MASK) != 0) {
+      getLog().doTrace(msg, t, logName);
+    }
   }
 
   /**
    * Log to the specified log with level TRACE.<br>
    */
   protected void doTrace(String msg, Throwable t, String logName) {
-    if (doIsTraceEnabled(logName)) {
-      trace(msg, logName);
-      logHooks.forEach(hook -> hook.doTrace(msg, t, logName));
+    if (doIsTraceEnabled(logName) && !isSampledOut(logName)) {
+      doTraceSampled(msg, logName);
+      ILogHook[] hooks = hooks();
+      for (int i = 0; i < hooks.length; i++) {
+        hooks[i].doTrace(msg, t, logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level TRACE. The message is only
+   * constructed if level TRACE is enabled for the log name.
+   *
+   * @param msg     supplies the trace message
+   * @param logName the log name to use
+   */
+  public static final void trace(Supplier<String> msg, String logName) {
+    if ((levelMask & TRACE_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsTraceEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doTraceSampled(msg.get(), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level TRACE. The placeholder
+   * <code>{}</code> of the template is only replaced if level TRACE is
+   * enabled for the log name (see {@link MessageFormatter}).
+   *
+   * @param template the trace message template
+   * @param logName  the log name to use
+   * @param arg      the argument of the template
+   */
+  public static final void trace(String template, String logName, Object arg) {
+    if ((levelMask & TRACE_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsTraceEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doTraceSampled(MessageFormatter.format(template, arg), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level TRACE, using a template with
+   * two arguments (see {@link #trace(String, String, Object)}).
+   */
+  public static final void trace(String template, String logName, Object arg1, Object arg2) {
+    if ((levelMask & TRACE_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsTraceEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doTraceSampled(MessageFormatter.format(template, arg1, arg2), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level TRACE, using a template with
+   * any amount of arguments (see {@link #trace(String, String, Object)}).
+   */
+  public static final void trace(String template, String logName, Object... args) {
+    if ((levelMask & TRACE_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsTraceEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doTraceSampled(MessageFormatter.format(template, args), logName);
+      }
     }
   }
 
@@ -241,7 +550,7 @@ public class Log {
    * @return whether level DEBUG is enabled for the given log name
    */
   public static final boolean isDebugEnabled(String logName) {
-    return getLog().doIsDebugEnabled(logName);
+    return (levelMask & DEBUG_MASK) != 0 && getLog().doIsDebugEnabled(logName);
   }
 
   /**
@@ -250,7 +559,8 @@ public class Log {
    * @return whether level DEBUG is enabled for the given log name
    */
   protected boolean doIsDebugEnabled(String logName) {
-    return isDEBUG;
+    LogLevel level = logLevels.getLevel(logName);
+    return level == null ? isDEBUG : level.isDebugEnabled();
   }
 
   /**
@@ -260,35 +570,77 @@ public class Log {
    * @param logName the log name to use
    */
   public static final void debug(String msg, String logName) {
-    getLog().doDebug(msg, logName);
+    if ((levelMask & DEBUG_MASK) != 0) {
+      getLog().doDebug(msg, logName);
+    }
   }
 
   /**
    * Log to the specified log with level DEBUG.
    */
   protected void doDebug(String msg, String logName) {
-    if (doIsDebugEnabled(logName)) {
-      logHooks.forEach(hook -> hook.doDebug(msg, logName));
+    if (doIsDebugEnabled(logName) && !isSampledOut(logName)) {
+      dispatchDebug(msg, logName);
+    }
+  }
+
+  /**
+   * Log a debug message (of the lazy overloads or with an exception), which
+   * has passed the checks (including sampling), via
+   * {@link #doDebug(String, String)}, such that overrides apply. The message
+   * is not sampled again.
+   */
+  protected void doDebugSampled(String msg, String logName) {
+    if (!this.sampling.isEnabled()) {
+      doDebug(msg, logName);
+      return;
+    }
+    int[] depth = SAMPLED.get();
+    depth[0]++;
+    try {
+      doDebug(msg, logName);
+    } finally {
+      depth[0]--;
+    }
+  }
+
+  /**
+   * Pass a debug message to the hooks, which has passed the checks
+   */
+  protected void dispatchDebug(String msg, String logName) {
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doDebug(msg, logName);
     }
   }
 
   public static final void debug(String msg, SourcePosition pos, String logName) {
-    getLog().doDebug(msg, pos, logName);
+    if ((levelMask & DEBUG_MASK) != 0) {
+      getLog().doDebug(msg, pos, logName);
+    }
   }
 
   protected void doDebug(String msg, SourcePosition pos, String logName) {
-    if (doIsDebugEnabled(logName)) {
-      logHooks.forEach(hook -> hook.doDebug(msg, pos, logName));
+    if (doIsDebugEnabled(logName) && !isSampledOut(logName)) {
+      ILogHook[] hooks = hooks();
+      for (int i = 0; i < hooks.length; i++) {
+        hooks[i].doDebug(msg, pos, logName);
+      }
     }
   }
 
   public static final void debug(String msg, SourcePosition start, SourcePosition end, String logName) {
-    getLog().doDebug(msg, start, end, logName);
+    if ((levelMask & DEBUG_MASK) != 0) {
+      getLog().doDebug(msg, start, end, logName);
+    }
   }
 
   protected void doDebug(String msg, SourcePosition start, SourcePosition end, String logName) {
-    if (doIsDebugEnabled(logName)) {
-      logHooks.forEach(hook -> hook.doDebug(msg, start, end, logName));
+    if (doIsDebugEnabled(logName) && !isSampledOut(logName)) {
+      ILogHook[] hooks = hooks();
+      for (int i = 0; i < hooks.length; i++) {
+        hooks[i].doDebug(msg, start, end, logName);
+      }
     }
   }
 
@@ -300,16 +652,81 @@ public class Log {
    * @param logName the log name to use
    */
   public static final void debug(String msg, Throwable t, String logName) {
-    getLog().doDebug(msg, t, logName);
+    if ((levelMask & DEBUG_MASK) != 0) {
+      getLog().doDebug(msg, t, logName);
+    }
   }
 
   /**
    * Log to the specified log with level DEBUG.
    */
   protected void doDebug(String msg, Throwable t, String logName) {
-    if (doIsDebugEnabled(logName)) {
-      debug(msg, logName);
-      logHooks.forEach(hook -> hook.doDebug(msg, t, logName));
+    if (doIsDebugEnabled(logName) && !isSampledOut(logName)) {
+      doDebugSampled(msg, logName);
+      ILogHook[] hooks = hooks();
+      for (int i = 0; i < hooks.length; i++) {
+        hooks[i].doDebug(msg, t, logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level DEBUG. The message is only
+   * constructed if level DEBUG is enabled for the log name.
+   *
+   * @param msg     supplies the debug message
+   * @param logName the log name to use
+   */
+  public static final void debug(Supplier<String> msg, String logName) {
+    if ((levelMask & DEBUG_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsDebugEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doDebugSampled(msg.get(), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level DEBUG. The placeholder
+   * <code>{}</code> of the template is only replaced if level DEBUG is
+   * enabled for the log name (see {@link MessageFormatter}).
+   *
+   * @param template the debug message template
+   * @param logName  the log name to use
+   * @param arg      the argument of the template
+   */
+  public static final void debug(String template, String logName, Object arg) {
+    if ((levelMask & DEBUG_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsDebugEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doDebugSampled(MessageFormatter.format(template, arg), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level DEBUG, using a template with
+   * two arguments (see {@link #debug(String, String, Object)}).
+   */
+  public static final void debug(String template, String logName, Object arg1, Object arg2) {
+    if ((levelMask & DEBUG_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsDebugEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doDebugSampled(MessageFormatter.format(template, arg1, arg2), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level DEBUG, using a template with
+   * any amount of arguments (see {@link #debug(String, String, Object)}).
+   */
+  public static final void debug(String template, String logName, Object... args) {
+    if ((levelMask & DEBUG_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsDebugEnabled(logName) && !l.isSampledOut(logName)) {
+        l.doDebugSampled(MessageFormatter.format(template, args), logName);
+      }
     }
   }
 
@@ -319,7 +736,7 @@ public class Log {
    * @return whether level INFO is enabled for the given log name
    */
   public static final boolean isInfoEnabled(String logName) {
-    return getLog().doIsInfoEnabled(logName);
+    return (levelMask & INFO_MASK) != 0 && getLog().doIsInfoEnabled(logName);
   }
 
   /**
@@ -328,7 +745,8 @@ public class Log {
    * @return whether level INFO is enabled for the given log name
    */
   protected boolean doIsInfoEnabled(String logName) {
-    return isINFO;
+    LogLevel level = logLevels.getLevel(logName);
+    return level == null ? isINFO : level.isInfoEnabled();
   }
 
   /**
@@ -338,7 +756,9 @@ public class Log {
    * @param logName the log name to use
    */
   public static final void info(String msg, String logName) {
-    getLog().doInfo(msg, logName);
+    if ((levelMask & INFO_MASK) != 0) {
+      getLog().doInfo(msg, logName);
+    }
   }
 
   /**
@@ -346,7 +766,10 @@ public class Log {
    */
   protected void doInfo(String msg, String logName) {
     if (doIsInfoEnabled(logName)) {
-      logHooks.forEach(hook -> hook.doInfo(msg, logName));
+      ILogHook[] hooks = hooks();
+      for (int i = 0; i < hooks.length; i++) {
+        hooks[i].doInfo(msg, logName);
+      }
     }
   }
 
@@ -358,7 +781,9 @@ public class Log {
    * @param logName the log name to use
    */
   public static final void info(String msg, Throwable t, String logName) {
-    getLog().doInfo(msg, t, logName);
+    if ((levelMask & INFO_MASK) != 0) {
+      getLog().doInfo(msg, t, logName);
+    }
   }
 
   /**
@@ -367,7 +792,70 @@ public class Log {
   protected void doInfo(String msg, Throwable t, String logName) {
     if (doIsInfoEnabled(logName)) {
       info(msg, logName);
-      logHooks.forEach(hook -> hook.doInfo(msg, t, logName));
+      ILogHook[] hooks = hooks();
+      for (int i = 0; i < hooks.length; i++) {
+        hooks[i].doInfo(msg, t, logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level INFO. The message is only
+   * constructed if level INFO is enabled for the log name.
+   *
+   * @param msg     supplies the info message
+   * @param logName the log name to use
+   */
+  public static final void info(Supplier<String> msg, String logName) {
+    if ((levelMask & INFO_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsInfoEnabled(logName)) {
+        l.doInfo(msg.get(), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level INFO. The placeholder
+   * <code>{}</code> of the template is only replaced if level INFO is
+   * enabled for the log name (see {@link MessageFormatter}).
+   *
+   * @param template the info message template
+   * @param logName  the log name to use
+   * @param arg      the argument of the template
+   */
+  public static final void info(String template, String logName, Object arg) {
+    if ((levelMask & INFO_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsInfoEnabled(logName)) {
+        l.doInfo(MessageFormatter.format(template, arg), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level INFO, using a template with
+   * two arguments (see {@link #info(String, String, Object)}).
+   */
+  public static final void info(String template, String logName, Object arg1, Object arg2) {
+    if ((levelMask & INFO_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsInfoEnabled(logName)) {
+        l.doInfo(MessageFormatter.format(template, arg1, arg2), logName);
+      }
+    }
+  }
+
+  /**
+   * Log to the specified log name with level INFO, using a template with
+   * any amount of arguments (see {@link #info(String, String, Object)}).
+   */
+  public static final void info(String template, String logName, Object... args) {
+    if ((levelMask & INFO_MASK) != 0) {
+      Log l = getLog();
+      if (l.doIsInfoEnabled(logName)) {
+        l.doInfo(MessageFormatter.format(template, args), logName);
+      }
     }
   }
 
@@ -395,8 +883,14 @@ public class Log {
    */
   protected void doWarn(String msg) {
     Finding warn = Finding.warning(msg);
+    if (isSuppressed(warn)) {
+      return;
+    }
     addFinding(warn);
-    logHooks.forEach(hook -> hook.doWarn(warn));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn);
+    }
   }
 
   /**
@@ -414,8 +908,14 @@ public class Log {
    */
   protected void doWarn(String msg, SourcePosition pos) {
     Finding warn = Finding.warning(msg, pos);
+    if (isSuppressed(warn)) {
+      return;
+    }
     addFinding(warn);
-    logHooks.forEach(hook -> hook.doWarn(warn));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn);
+    }
   }
 
   /**
@@ -434,8 +934,14 @@ public class Log {
    */
   protected void doWarn(String msg, SourcePosition start, SourcePosition end) {
     Finding warn = Finding.warning(msg, start, end);
+    if (isSuppressed(warn)) {
+      return;
+    }
     addFinding(warn);
-    logHooks.forEach(hook -> hook.doWarn(warn));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn);
+    }
     terminateIfErrors();
   }
 
@@ -454,8 +960,122 @@ public class Log {
    */
   protected void doWarn(String msg, Throwable t) {
     Finding warn = Finding.warning(msg);
+    if (isSuppressed(warn)) {
+      return;
+    }
     addFinding(warn);
-    logHooks.forEach(hook -> hook.doWarn(warn, t));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn, t);
+    }
+  }
+
+  /**
+   * Log to the specified log with level WARN.
+   *
+   * @param msg     the warn message
+   * @param logName the name of the component which reports the warn
+   */
+  public static final void warn(String msg, String logName) {
+    getLog().doWarn(msg, logName);
+  }
+
+  /**
+   * Log to the specified log with level WARN.
+   */
+  protected void doWarn(String msg, String logName) {
+    Finding warn = Finding.warning(msg);
+    warn.setLogName(logName);
+    if (isSuppressed(warn)) {
+      return;
+    }
+    addFinding(warn);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn);
+    }
+  }
+
+  /**
+   * Log to the specified log with level WARN and source position.
+   *
+   * @param msg     the warn message
+   * @param pos     the source position in a model file which caused the warn
+   * @param logName the name of the component which reports the warn
+   */
+  public static final void warn(String msg, SourcePosition pos, String logName) {
+    getLog().doWarn(msg, pos, logName);
+  }
+
+  /**
+   * Log to the specified log with level WARN and source position.
+   */
+  protected void doWarn(String msg, SourcePosition pos, String logName) {
+    Finding warn = Finding.warning(msg, pos);
+    warn.setLogName(logName);
+    if (isSuppressed(warn)) {
+      return;
+    }
+    addFinding(warn);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn);
+    }
+  }
+
+  /**
+   * Log to the specified log with level WARN and source position.
+   *
+   * @param msg     the warn message
+   * @param start   the start position in a model file which caused the warn
+   * @param end     the end position in a model file which caused the warn
+   * @param logName the name of the component which reports the warn
+   */
+  public static final void warn(String msg, SourcePosition start, SourcePosition end, String logName) {
+    getLog().doWarn(msg, start, end, logName);
+  }
+
+  /**
+   * Log to the specified log with level WARN and source position for start and end.
+   */
+  protected void doWarn(String msg, SourcePosition start, SourcePosition end, String logName) {
+    Finding warn = Finding.warning(msg, start, end);
+    warn.setLogName(logName);
+    if (isSuppressed(warn)) {
+      return;
+    }
+    addFinding(warn);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn);
+    }
+  }
+
+  /**
+   * Log to the specified log with level WARN.
+   *
+   * @param msg     the warn message
+   * @param t       the exception to log
+   * @param logName the name of the component which reports the warn
+   */
+  public static final void warn(String msg, Throwable t, String logName) {
+    getLog().doWarn(msg, t, logName);
+  }
+
+  /**
+   * Log to the specified log with level WARN.
+   */
+  protected void doWarn(String msg, Throwable t, String logName) {
+    Finding warn = Finding.warning(msg);
+    warn.setLogName(logName);
+    if (isSuppressed(warn)) {
+      return;
+    }
+    addFinding(warn);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doWarn(warn, t);
+    }
   }
 
   /**
@@ -472,8 +1092,14 @@ public class Log {
    */
   protected void doError(String msg) {
     Finding error = Finding.error(msg);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doError(error));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error);
+    }
     terminateIfErrors();
   }
 
@@ -492,8 +1118,14 @@ public class Log {
    */
   protected void doError(String msg, SourcePosition pos) {
     Finding error = Finding.error(msg, pos);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doError(error));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error);
+    }
     terminateIfErrors();
   }
 
@@ -513,8 +1145,14 @@ public class Log {
    */
   protected void doError(String msg, SourcePosition start, SourcePosition end) {
     Finding error = Finding.error(msg, start, end);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doError(error));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error);
+    }
     terminateIfErrors();
   }
 
@@ -533,8 +1171,126 @@ public class Log {
    */
   protected void doError(String msg, Throwable t) {
     Finding error = Finding.error(msg);
+    if (isSuppressed(error)) {
+      return;
+    }
+    addFinding(error);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error, t);
+    }
+    terminateIfErrors();
+  }
+
+  /**
+   * Log to the specified log with level ERROR.
+   *
+   * @param msg     the error message
+   * @param logName the name of the component which reports the error
+   */
+  public static final void error(String msg, String logName) {
+    getLog().doError(msg, logName);
+  }
+
+  /**
+   * Log to the specified log with level ERROR.
+   */
+  protected void doError(String msg, String logName) {
+    Finding error = Finding.error(msg);
+    error.setLogName(logName);
+    if (isSuppressed(error)) {
+      return;
+    }
+    addFinding(error);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error);
+    }
+    terminateIfErrors();
+  }
+
+  /**
+   * Log to the specified log with level ERROR and source position.
+   *
+   * @param msg     the error message
+   * @param pos     the source position in a model file which caused the error
+   * @param logName the name of the component which reports the error
+   */
+  public static final void error(String msg, SourcePosition pos, String logName) {
+    getLog().doError(msg, pos, logName);
+  }
+
+  /**
+   * Log to the specified log with level ERROR and source position.
+   */
+  protected void doError(String msg, SourcePosition pos, String logName) {
+    Finding error = Finding.error(msg, pos);
+    error.setLogName(logName);
+    if (isSuppressed(error)) {
+      return;
+    }
+    addFinding(error);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error);
+    }
+    terminateIfErrors();
+  }
+
+  /**
+   * Log to the specified log with level ERROR and source position.
+   *
+   * @param msg     the error message
+   * @param start   the start position in a model file which caused the error
+   * @param end     the end position in a model file which caused the error
+   * @param logName the name of the component which reports the error
+   */
+  public static final void error(String msg, SourcePosition start, SourcePosition end, String logName) {
+    getLog().doError(msg, start, end, logName);
+  }
+
+  /**
+   * Log to the specified log with level ERROR and source position for start and end.
+   */
+  protected void doError(String msg, SourcePosition start, SourcePosition end, String logName) {
+    Finding error = Finding.error(msg, start, end);
+    error.setLogName(logName);
+    if (isSuppressed(error)) {
+      return;
+    }
+    addFinding(error);
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error);
+    }
+    terminateIfErrors();
+  }
+
+  /**
+   * Log to the specified log with level ERROR.
+   *
+   * @param msg     the error message
+   * @param t       the exception to log
+   * @param logName the name of the component which reports the error
+   */
+  public static final void error(String msg, Throwable t, String logName) {
+    getLog().doError(msg, t, logName);
+  }
+
+  /**
+   * Log to the specified log with level ERROR.
+   */
+  protected void doError(String msg, Throwable t, String logName) {
+    Finding error = Finding.error(msg);
+    error.setLogName(logName);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doError(error, t));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doError(error, t);
+    }
     terminateIfErrors();
   }
 
@@ -658,8 +1414,14 @@ public class Log {
    */
   protected void doErrorUser(String msg) {
     Finding error = Finding.userError(msg);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doErrorUser(error));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doErrorUser(error);
+    }
   }
 
   /**
@@ -667,8 +1429,14 @@ public class Log {
    */
   protected void doErrorUser(String msg, SourcePosition pos) {
     Finding error = Finding.userError(msg, pos);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doErrorUser(error));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doErrorUser(error);
+    }
   }
 
   /**
@@ -676,8 +1444,14 @@ public class Log {
    */
   protected void doErrorUser(String msg, SourcePosition start, SourcePosition end) {
     Finding error = Finding.userError(msg, start, end);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doErrorUser(error));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doErrorUser(error);
+    }
   }
 
   /**
@@ -685,8 +1459,14 @@ public class Log {
    */
   protected void doErrorUser(String msg, Throwable t) {
     Finding error = Finding.userError(msg);
+    if (isSuppressed(error)) {
+      return;
+    }
     addFinding(error);
-    logHooks.forEach(hook -> hook.doErrorUser(error, t));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doErrorUser(error, t);
+    }
   }
 
   /**
@@ -789,6 +1569,9 @@ public class Log {
    * Return the amount of errors which occurred.
    */
   protected long doGetErrorCount() {
+    if (this.findings instanceof FindingsStore) {
+      return ((FindingsStore) this.findings).getErrorCount();
+    }
     return this.findings.stream().filter(f -> f.isError()).count();
   }
 
@@ -824,6 +1607,120 @@ public class Log {
     return this.failQuick;
   }
 
+  /**
+   * Keep only the first findings in memory and spill further findings to a
+   * file, such that very large runs do not keep millions of findings
+   * reachable. The spilled findings are still counted and returned by
+   * iterating {@link #getFindings()}. Should be configured before logging,
+   * as the findings logged concurrently may be lost.
+   *
+   * @param retained  the amount of findings kept in memory
+   * @param spillFile the file to spill further findings to (which is
+   *                  overwritten), or null for a temporary file
+   */
+  public static final void retainFindings(int retained, Path spillFile) {
+    Log l = getLog();
+    FindingsStore store = new FindingsStore(retained, spillFile);
+    store.addAll(l.findings);
+    List<Finding> old = l.findings;
+    l.findings = store;
+    old.clear();
+  }
+
+  /**
+   * Suppress findings which are equal to a previous finding, i.e. do neither
+   * store them nor pass them to the log hooks. The amount of suppressed
+   * findings is available via {@link #getSuppressedFindings()}.
+   *
+   * @param enable whether to suppress repeated findings
+   */
+  public static final void enableFindingsDeduplication(boolean enable) {
+    getLog().suppression.setDeduplicate(enable);
+  }
+
+  /**
+   * Suppress findings with an error code (e.g. <code>0xA1010</code>) once the
+   * given amount of findings with the code has been logged.
+   *
+   * @param max the maximum amount of findings per error code, 0 for no maximum
+   */
+  public static final void setMaxFindingsPerErrorCode(int max) {
+    getLog().suppression.setMaxPerErrorCode(max);
+  }
+
+  /**
+   * @return the amount of suppressed findings per error code (the empty string
+   * for findings without error code)
+   */
+  public static final Map<String, Long> getSuppressedFindings() {
+    return getLog().suppression.getSuppressedCounts();
+  }
+
+  /**
+   * @return the total amount of suppressed findings
+   */
+  public static final long getSuppressedFindingsCount() {
+    return getLog().suppression.getSuppressedCount();
+  }
+
+  /**
+   * Log only one in n trace and debug messages per log name. The amount of
+   * dropped messages is available via {@link #getDroppedMessages()}.
+   *
+   * @param n the sampling rate, 1 to log all messages
+   */
+  public static final void sampleOneInN(int n) {
+    getLog().sampling.setMode(n == 1 ? LogSampling.Mode.DISABLED : LogSampling.Mode.ONE_IN_N, n);
+  }
+
+  /**
+   * Log at most the given amount of trace and debug messages per log name
+   * and second. The amount of dropped messages is available via
+   * {@link #getDroppedMessages()}.
+   *
+   * @param messages the max. amount of messages per second
+   */
+  public static final void samplePerSecond(int messages) {
+    getLog().sampling.setMode(LogSampling.Mode.PER_SECOND, messages);
+  }
+
+  /**
+   * Log all enabled trace and debug messages (default)
+   */
+  public static final void disableSampling() {
+    getLog().sampling.setMode(LogSampling.Mode.DISABLED, 1);
+  }
+
+  /**
+   * @return the amount of trace and debug messages dropped by sampling per
+   * log name
+   */
+  public static final Map<String, Long> getDroppedMessages() {
+    return getLog().sampling.getDroppedCounts();
+  }
+
+  /**
+   * @return the total amount of trace and debug messages dropped by sampling
+   */
+  public static final long getDroppedMessagesCount() {
+    return getLog().sampling.getDroppedCount();
+  }
+
+  /**
+   * @return whether an enabled trace or debug message is dropped by sampling,
+   * which is evaluated before the message is constructed
+   */
+  protected boolean isSampledOut(String logName) {
+    return this.sampling.isEnabled() && SAMPLED.get()[0] == 0 && !this.sampling.sample(logName);
+  }
+
+  /**
+   * @return whether the finding repeats previous findings and is not logged
+   */
+  protected boolean isSuppressed(Finding finding) {
+    return this.suppression.isEnabled() && this.suppression.suppress(finding);
+  }
+
   /**
    * Increment the error log counter.
    */
@@ -840,12 +1737,35 @@ public class Log {
     // 2. no error occured
     // 3. running in interactive mode
     if (isFailQuickEnabled() && getErrorCount() > 0 && !isInteractive()) {
-      this.errorHook.terminate();
+      doTerminate();
+    }
+  }
+
+  /**
+   * Terminate due to errors: First, flush all hooks (including asynchronous
+   * ones), waiting at most the termination timeout, as buffering hooks would
+   * otherwise lose their last messages. Then, pass a view of the findings
+   * (see {@link FindingsStore#view()}), which does not copy spilled findings,
+   * to the error hook. Terminations of concurrent threads are serialized, such
+   * that the error hook is not invoked while another thread is flushing.
+   */
+  protected void doTerminate() {
+    synchronized (TERMINATION_LOCK) {
+      long timeout = this.terminationTimeout;
+      if (!doFlush(timeout)) {
+        System.err.println("[WARN]  Not all log hooks have been flushed within " + timeout + " ms.");
+      }
+      this.errorHook.terminate(this.findings instanceof FindingsStore
+          ? ((FindingsStore) this.findings).view()
+          : Collections.unmodifiableList(new ArrayList<>(this.findings)));
     }
   }
 
   /**
-   * Get the list of all previously occurred findings.
+   * Get the list of all previously occurred findings. The list is
+   * append-only by default (see {@link FindingsStore}), i.e. findings can
+   * not be replaced or removed individually, but only cleared via
+   * {@link #clearFindings()}.
    *
    * @return list of all findings
    */
@@ -873,14 +1793,23 @@ public class Log {
    */
   protected void doClearFindings() {
     findings.clear();
+    suppression.clear();
+    sampling.clear();
   }
 
   /**
    * Reset List of prints
    */
   public static void printFindings() {
-    for (int i = 0; i < getFindings().size(); i++) {
-      System.out.printf("#%d : %s\n", i, getFindings().get(i));
+    int i = 0;
+    for (Finding f : getFindings()) {
+      System.out.printf("#%d : %s\n", i++, f);
+    }
+    if (getSuppressedFindingsCount() > 0) {
+      System.out.println(getLog().suppression.getSummary());
+    }
+    if (getDroppedMessagesCount() > 0) {
+      System.out.println(getLog().sampling.getSummary());
     }
   }
 
@@ -892,7 +1821,10 @@ public class Log {
   }
 
   protected void doPrint(String msg) {
-    logHooks.forEach(hook -> hook.doPrint(msg));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doPrint(msg);
+    }
   }
 
   /**
@@ -903,7 +1835,10 @@ public class Log {
   }
 
   protected void doPrintln(String msg) {
-    logHooks.forEach(hook -> hook.doPrintln(msg));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doPrintln(msg);
+    }
   }
 
   /**
@@ -911,11 +1846,66 @@ public class Log {
    * (to be adapted in subclasses)
    */
   protected void doPrintStackTrace(Throwable t) {
-    logHooks.forEach(hook -> hook.doPrintStackTrace(t));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doPrintStackTrace(t);
+    }
   }
 
   protected void doErrPrintStackTrace(Throwable t) {
-    logHooks.forEach(hook -> hook.doErrPrintStackTrace(t));
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].doErrPrintStackTrace(t);
+    }
+  }
+
+  /**
+   * Write all messages buffered by the log hooks
+   * (e.g. of an {@link AsyncFileLogHook})
+   */
+  public static void flush() {
+    getLog().doFlush();
+  }
+
+  protected void doFlush() {
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      hooks[i].flush();
+    }
+  }
+
+  /**
+   * Write all messages buffered by the log hooks, but wait at most the given
+   * time in total
+   *
+   * @param timeoutMillis the max. time to wait
+   * @return true, if all hooks have been flushed
+   */
+  public static boolean flush(long timeoutMillis) {
+    return getLog().doFlush(timeoutMillis);
+  }
+
+  protected boolean doFlush(long timeoutMillis) {
+    long start = System.currentTimeMillis();
+    boolean flushed = true;
+    ILogHook[] hooks = hooks();
+    for (int i = 0; i < hooks.length; i++) {
+      long remaining = Math.max(0, timeoutMillis - (System.currentTimeMillis() - start));
+      flushed &= hooks[i].flush(remaining);
+    }
+    return flushed;
+  }
+
+  /**
+   * @return the hooks to dispatch a message to (must not be modified)
+   */
+  protected ILogHook[] hooks() {
+    List<ILogHook> hooks = this.logHooks;
+    if (hooks instanceof LogHookList) {
+      return ((LogHookList) hooks).snapshot();
+    }
+    // e.g. a plain list set by a subclass
+    return hooks.toArray(new ILogHook[0]);
   }
 
   public static void addLogHook(ILogHook hook) {
@@ -929,4 +1919,15 @@ public class Log {
   public static void setErrorHook(IErrorHook hook) {
     getLog().errorHook = hook;
   }
+
+  /**
+   * @param timeoutMillis the max. time to wait for the log hooks to be flushed
+   *                      before the error hook terminates the application
+   */
+  public static void setTerminationTimeout(long timeoutMillis) {
+    if (timeoutMillis < 0) {
+      throw new IllegalArgumentException("The termination timeout must not be negative.");
+    }
+    getLog().terminationTimeout = timeoutMillis;
+  }
 }
@@ -0,0 +1,88 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.util.List;
+
+/**
+ * A scope in which the {@link Log} of the current thread is a separate
+ * instance with its own findings, hooks, levels and fail quick state.
+ * This allows multiple tool invocations to run concurrently within one JVM
+ * (and classloader) without their findings and error counts bleeding into
+ * each other. Initializing the Log (e.g. {@link Log#init()}) within the scope
+ * only replaces the Log of the scope.
+ * <p>
+ * Contexts are created by {@link Log#withContext()} and must be closed by the
+ * thread which created them, e.g. using try-with-resources:
+ * <pre>
+ *   try (LogContext context = Log.withContext()) {
+ *     Tool.main(args);
+ *     errors = context.getErrorCount();
+ *   }
+ * </pre>
+ * Contexts may be nested; closing a context re-activates the enclosing one.
+ * Threads started within a context do not inherit it; they may join it using
+ * <code>Log.withContext(context.getLog())</code>.
+ */
+public class LogContext implements AutoCloseable {
+
+  // the Log used by the current thread while the context is active
+  protected Log log;
+
+  // the enclosing context (or null)
+  protected final LogContext previous;
+
+  protected final Thread owner;
+
+  protected boolean closed = false;
+
+  protected LogContext(Log log, LogContext previous) {
+    this.log = log;
+    this.previous = previous;
+    this.owner = Thread.currentThread();
+  }
+
+  /**
+   * @return the Log of this context
+   */
+  public Log getLog() {
+    return log;
+  }
+
+  /**
+   * @return the findings which occurred within this context
+   */
+  public List<Finding> getFindings() {
+    return log.doGetFindings();
+  }
+
+  /**
+   * @return the amount of errors which occurred within this context
+   */
+  public long getErrorCount() {
+    return log.doGetErrorCount();
+  }
+
+  /**
+   * Deactivates this context and re-activates the enclosing one
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    if (Thread.currentThread() != owner || Log.CONTEXT.get() != this) {
+      throw new IllegalStateException("A log context must be closed by the thread which created it,"
+          + " after all contexts nested into it.");
+    }
+    log.doFlush();
+    if (previous == null) {
+      Log.CONTEXT.remove();
+    } else {
+      Log.CONTEXT.set(previous);
+    }
+    closed = true;
+    Log.OPEN_CONTEXTS.decrementAndGet();
+    Log.updateLevelMask();
+  }
+
+}
@@ -0,0 +1,135 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The copy-on-write list of log hooks of a {@link Log}.
+ * <p>
+ * Log messages are dispatched to the hooks of an immutable array snapshot
+ * ({@link #snapshot()}), such that logging requires no locking and hooks may
+ * be added or removed concurrently by other threads.
+ * Modifications copy the array, as hooks are registered rarely but used for
+ * every message. Iterators operate on the snapshot taken at their creation.
+ */
+public class LogHookList extends AbstractList<ILogHook> implements RandomAccess {
+
+  protected static final ILogHook[] EMPTY = new ILogHook[0];
+
+  protected volatile ILogHook[] hooks = EMPTY;
+
+  public LogHookList() {
+  }
+
+  public LogHookList(Collection<? extends ILogHook> hooks) {
+    this.hooks = hooks.toArray(EMPTY);
+  }
+
+  /**
+   * @return the current hooks; the array must not be modified
+   */
+  public ILogHook[] snapshot() {
+    return hooks;
+  }
+
+  @Override
+  public ILogHook get(int index) {
+    return hooks[index];
+  }
+
+  @Override
+  public int size() {
+    return hooks.length;
+  }
+
+  @Override
+  public synchronized ILogHook set(int index, ILogHook hook) {
+    ILogHook[] copy = hooks.clone();
+    ILogHook old = copy[index];
+    copy[index] = Log.errorIfNull(hook);
+    hooks = copy;
+    return old;
+  }
+
+  @Override
+  public synchronized boolean add(ILogHook hook) {
+    add(hooks.length, hook);
+    return true;
+  }
+
+  @Override
+  public synchronized void add(int index, ILogHook hook) {
+    ILogHook[] old = hooks;
+    if (index < 0 || index > old.length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + old.length);
+    }
+    ILogHook[] copy = new ILogHook[old.length + 1];
+    System.arraycopy(old, 0, copy, 0, index);
+    copy[index] = Log.errorIfNull(hook);
+    System.arraycopy(old, index, copy, index + 1, old.length - index);
+    hooks = copy;
+  }
+
+  @Override
+  public synchronized ILogHook remove(int index) {
+    ILogHook[] old = hooks;
+    ILogHook removed = old[index];
+    ILogHook[] copy = new ILogHook[old.length - 1];
+    System.arraycopy(old, 0, copy, 0, index);
+    System.arraycopy(old, index + 1, copy, index, old.length - index - 1);
+    hooks = copy;
+    return removed;
+  }
+
+  @Override
+  public synchronized boolean remove(Object hook) {
+    int index = indexOf(hook);
+    if (index < 0) {
+      return false;
+    }
+    remove(index);
+    return true;
+  }
+
+  @Override
+  public synchronized boolean removeIf(Predicate<? super ILogHook> filter) {
+    ILogHook[] old = hooks;
+    ILogHook[] kept = Arrays.stream(old).filter(h -> !filter.test(h)).toArray(ILogHook[]::new);
+    hooks = kept;
+    return kept.length != old.length;
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    return removeIf(c::contains);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    return removeIf(h -> !c.contains(h));
+  }
+
+  @Override
+  public synchronized void clear() {
+    hooks = EMPTY;
+  }
+
+  @Override
+  public Iterator<ILogHook> iterator() {
+    return Arrays.asList(hooks).iterator();
+  }
+
+  @Override
+  public void forEach(Consumer<? super ILogHook> action) {
+    for (ILogHook hook : hooks) {
+      action.accept(hook);
+    }
+  }
+
+}
@@ -0,0 +1,24 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+/**
+ * The levels which may be configured for log names (see
+ * {@link Log#setLogLevel(String, LogLevel)}). A level enables itself and all
+ * less verbose levels, e.g. DEBUG enables DEBUG and INFO messages.
+ * Warnings and errors are always logged.
+ */
+public enum LogLevel {
+  TRACE, DEBUG, INFO, WARN;
+
+  public boolean isTraceEnabled() {
+    return this == TRACE;
+  }
+
+  public boolean isDebugEnabled() {
+    return this.ordinal() <= DEBUG.ordinal();
+  }
+
+  public boolean isInfoEnabled() {
+    return this.ordinal() <= INFO.ordinal();
+  }
+}
@@ -0,0 +1,222 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hierarchical levels per log name. A level configured for a prefix, e.g.
+ * <code>de.monticore.symboltable=TRACE</code>, applies to the log name itself
+ * and to all log names below it (<code>de.monticore.symboltable.X</code>).
+ * The longest configured prefix wins. Log names without a configured prefix
+ * use the global levels of the {@link Log}.
+ * <p>
+ * The effective level of a log name is cached, such that resolving it is a
+ * single hash lookup. The cache is invalidated when the configuration changes.
+ * <p>
+ * If the system property {@value #LEVELS_FILE_PROPERTY} names a properties
+ * file, its levels are loaded initially. The file is read once, when the
+ * first configuration is created; invalid entries are reported and skipped.
+ */
+public class LogLevelConfiguration {
+
+  public static final String LEVELS_FILE_PROPERTY = "de.se_rwth.commons.logging.levels";
+
+  // do not let arbitrary log names grow the cache without bounds
+  protected static final int MAX_CACHE_SIZE = 16 * 1024;
+
+  // shared (allocation-free) cache values
+  protected static final Optional<LogLevel> UNCONFIGURED = Optional.empty();
+
+  protected static final Map<LogLevel, Optional<LogLevel>> CACHE_VALUES = new EnumMap<>(LogLevel.class);
+
+  static {
+    for (LogLevel level : LogLevel.values()) {
+      CACHE_VALUES.put(level, Optional.of(level));
+    }
+  }
+
+  protected final Map<String, LogLevel> levels = new ConcurrentHashMap<>();
+
+  protected final Map<String, Optional<LogLevel>> cache = new ConcurrentHashMap<>();
+
+  // incremented on every change, such that concurrently resolved levels do not outlive a change
+  protected volatile int version = 0;
+
+  /**
+   * The levels of the file named by {@value #LEVELS_FILE_PROPERTY}, read
+   * lazily on first use
+   */
+  protected static class PropertyLevels {
+
+    protected static final Map<String, LogLevel> LEVELS = read();
+
+    protected static Map<String, LogLevel> read() {
+      Map<String, LogLevel> result = new HashMap<>();
+      String file = System.getProperty(LEVELS_FILE_PROPERTY);
+      if (file == null || file.isEmpty()) {
+        return result;
+      }
+      Properties properties = new Properties();
+      try (InputStream in = Files.newInputStream(Paths.get(file))) {
+        properties.load(in);
+      } catch (IOException | RuntimeException e) {
+        // the Log is not yet usable, as this happens while it is created
+        System.err.println("[WARN]  Could not read the log levels of `" + file + "`: " + e);
+        return result;
+      }
+      for (String prefix : properties.stringPropertyNames()) {
+        String value = properties.getProperty(prefix).trim();
+        try {
+          result.put(prefix, LogLevel.valueOf(value.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+          System.err.println("[WARN]  Invalid log level `" + value + "` for `" + prefix + "` in `" + file + "`.");
+        }
+      }
+      return result;
+    }
+  }
+
+  public LogLevelConfiguration() {
+    if (!PropertyLevels.LEVELS.isEmpty()) {
+      this.levels.putAll(PropertyLevels.LEVELS);
+    }
+  }
+
+  /**
+   * @param other the configuration whose levels are copied
+   */
+  public LogLevelConfiguration(LogLevelConfiguration other) {
+    this.levels.putAll(other.levels);
+  }
+
+  /**
+   * @return the level of the log name, or null if no level is configured for
+   * the log name or one of its prefixes
+   */
+  public LogLevel getLevel(String logName) {
+    if (levels.isEmpty() || logName == null) {
+      return null;
+    }
+    Optional<LogLevel> level = cache.get(logName);
+    if (level == null) {
+      int v = version;
+      level = resolve(logName);
+      if (cache.size() >= MAX_CACHE_SIZE) {
+        cache.clear();
+      }
+      cache.put(logName, level);
+      if (v != version) {
+        cache.clear();
+      }
+    }
+    return level.orElse(null);
+  }
+
+  protected Optional<LogLevel> resolve(String logName) {
+    String prefix = logName;
+    while (true) {
+      LogLevel level = levels.get(prefix);
+      if (level != null) {
+        return CACHE_VALUES.get(level);
+      }
+      int dot = prefix.lastIndexOf('.');
+      if (dot < 0) {
+        return UNCONFIGURED;
+      }
+      prefix = prefix.substring(0, dot);
+    }
+  }
+
+  /**
+   * Set the level for a log name and all log names below it
+   */
+  public void setLevel(String prefix, LogLevel level) {
+    Log.errorIfNull(prefix);
+    Log.errorIfNull(level);
+    levels.put(prefix, level);
+    changed();
+  }
+
+  /**
+   * Remove the level configured for exactly the given prefix
+   */
+  public void removeLevel(String prefix) {
+    levels.remove(prefix);
+    changed();
+  }
+
+  /**
+   * Remove all configured levels
+   */
+  public void clear() {
+    levels.clear();
+    changed();
+  }
+
+  protected void changed() {
+    version++;
+    cache.clear();
+  }
+
+  /**
+   * @return whether any level has been configured
+   */
+  public boolean isEmpty() {
+    return levels.isEmpty();
+  }
+
+  /**
+   * @return the distinct levels which are configured for any prefix
+   */
+  public Set<LogLevel> getConfiguredLevels() {
+    Set<LogLevel> configured = EnumSet.noneOf(LogLevel.class);
+    configured.addAll(levels.values());
+    return configured;
+  }
+
+  /**
+   * Add the levels of properties of the form <code>logName=LEVEL</code>.
+   * No level is added if any of the properties is invalid.
+   */
+  public void load(Properties properties) {
+    Map<String, LogLevel> loaded = new HashMap<>();
+    for (String prefix : properties.stringPropertyNames()) {
+      String value = properties.getProperty(prefix).trim();
+      try {
+        loaded.put(prefix, LogLevel.valueOf(value.toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid log level `" + value + "` for `" + prefix + "`.", e);
+      }
+    }
+    levels.putAll(loaded);
+    changed();
+  }
+
+  /**
+   * Add the levels of a properties file with entries of the form
+   * <code>logName=LEVEL</code>
+   */
+  public void load(Path propertiesFile) {
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(propertiesFile)) {
+      properties.load(in);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read the log levels of `" + propertiesFile + "`.", e);
+    }
+    load(properties);
+  }
+
+}
@@ -0,0 +1,199 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which trace and debug messages are logged when their volume is too
+ * high to log all of them (e.g. TRACE on large builds). Sampling is disabled
+ * by default and otherwise evaluated per log name:
+ * <ul>
+ *   <li>one in n logs the first and then every n-th message</li>
+ *   <li>per second logs at most the given amount of messages per second
+ *   (a token bucket, which allows bursts of up to one second)</li>
+ * </ul>
+ * The messages which are not logged are counted per log name.
+ */
+public class LogSampling {
+
+  public enum Mode {
+    DISABLED, ONE_IN_N, PER_SECOND
+  }
+
+  // the key of messages without log name
+  public static final String NO_LOG_NAME = "";
+
+  protected volatile Mode mode = Mode.DISABLED;
+
+  // n, or the messages per second
+  protected volatile long rate = 1;
+
+  protected final Map<String, State> states = new ConcurrentHashMap<>();
+
+  /**
+   * The sampling state of a log name
+   */
+  protected static class State {
+
+    protected final AtomicLong seen = new AtomicLong();
+
+    protected final LongAdder dropped = new LongAdder();
+
+    // the token bucket, guarded by the state
+    protected double tokens = -1;
+
+    protected long lastRefill;
+  }
+
+  public LogSampling() {
+  }
+
+  /**
+   * @param other the sampling whose configuration (but not counts) is copied
+   */
+  public LogSampling(LogSampling other) {
+    this.mode = other.mode;
+    this.rate = other.rate;
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * @return n, or the messages per second
+   */
+  public long getRate() {
+    return rate;
+  }
+
+  /**
+   * @param mode the sampling mode
+   * @param rate n (for {@link Mode#ONE_IN_N}), or the messages per second
+   *             (for {@link Mode#PER_SECOND})
+   */
+  public void setMode(Mode mode, long rate) {
+    if (mode != Mode.DISABLED && rate < 1) {
+      throw new IllegalArgumentException("The sampling rate must be positive.");
+    }
+    this.rate = Math.max(1, rate);
+    this.mode = Log.errorIfNull(mode);
+    states.values().forEach(s -> {
+      synchronized (s) {
+        s.tokens = -1;
+      }
+    });
+  }
+
+  /**
+   * @return whether any messages may be dropped
+   */
+  public boolean isEnabled() {
+    return mode != Mode.DISABLED;
+  }
+
+  /**
+   * Decides whether a message of the log name is logged and counts it
+   * accordingly.
+   *
+   * @return true if the message is logged
+   */
+  public boolean sample(String logName) {
+    Mode m = this.mode;
+    if (m == Mode.DISABLED) {
+      return true;
+    }
+    String key = logName == null ? NO_LOG_NAME : logName;
+    State state = states.get(key);
+    if (state == null) {
+      state = states.computeIfAbsent(key, k -> new State());
+    }
+    boolean sampled;
+    if (m == Mode.ONE_IN_N) {
+      sampled = state.seen.getAndIncrement() % rate == 0;
+    } else {
+      sampled = takeToken(state);
+    }
+    if (!sampled) {
+      state.dropped.increment();
+    }
+    return sampled;
+  }
+
+  protected boolean takeToken(State state) {
+    long now = System.nanoTime();
+    long perSecond = this.rate;
+    synchronized (state) {
+      if (state.tokens < 0) {
+        state.tokens = perSecond;
+      } else {
+        double refill = (now - state.lastRefill) * perSecond / 1e9;
+        state.tokens = Math.min(perSecond, state.tokens + refill);
+      }
+      state.lastRefill = now;
+      if (state.tokens >= 1) {
+        state.tokens--;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * @return the total amount of dropped messages
+   */
+  public long getDroppedCount() {
+    long count = 0;
+    for (State state : states.values()) {
+      count += state.dropped.sum();
+    }
+    return count;
+  }
+
+  /**
+   * @return the amount of dropped messages per log name (sorted by log name,
+   * omitting log names without dropped messages)
+   */
+  public Map<String, Long> getDroppedCounts() {
+    Map<String, Long> counts = new TreeMap<>();
+    states.forEach((logName, state) -> {
+      long dropped = state.dropped.sum();
+      if (dropped > 0) {
+        counts.put(logName, dropped);
+      }
+    });
+    return counts;
+  }
+
+  /**
+   * @return a summary of the dropped messages, e.g.
+   * <code>Sampling dropped 1200 trace/debug messages (de.monticore.parser: 1000, de.monticore.symboltable: 200).</code>
+   */
+  public String getSummary() {
+    StringBuilder sb = new StringBuilder("Sampling dropped ").append(getDroppedCount())
+        .append(" trace/debug messages");
+    Map<String, Long> counts = getDroppedCounts();
+    if (!counts.isEmpty()) {
+      String separator = " (";
+      for (Map.Entry<String, Long> e : counts.entrySet()) {
+        sb.append(separator).append(e.getKey().isEmpty() ? "other" : e.getKey())
+            .append(": ").append(e.getValue());
+        separator = ", ";
+      }
+      sb.append(')');
+    }
+    return sb.append('.').toString();
+  }
+
+  /**
+   * Reset the counts, keeping the configuration
+   */
+  public void clear() {
+    states.clear();
+  }
+
+}
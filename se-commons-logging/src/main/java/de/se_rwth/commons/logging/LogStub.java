@@ -1,7 +1,6 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.se_rwth.commons.logging;
 
-import java.util.ArrayList;
 import java.util.List;
 
 
@@ -23,7 +22,7 @@ public class LogStub extends Log {
   protected LogStub() {
     // TODO: Workaround to fix the NPE
     this.collector = new LogPrintCollector();
-    this.logHooks = new ArrayList<>();
+    this.logHooks = new LogHookList();
     this.logHooks.add(collector);
     this.errorHook = new DefaultErrorHook();
 
@@ -48,12 +47,42 @@ public class LogStub extends Log {
    * INFO and prints are memorized in the prints' List.
    */
   public static void init() {
+    init(new LogPrintCollector());
+  }
+
+  /**
+   * Initialize the LogStub as Log (like init()), but only keep the given
+   * amount of most recent prints, see {@link RingBufferLogPrintCollector}
+   *
+   * @param capacity the max. amount of prints kept
+   */
+  public static void init(int capacity) {
+    init(new RingBufferLogPrintCollector(capacity));
+  }
+
+  /**
+   * Initialize the LogStub as Log (like init()), but only keep the given
+   * amount of most recent prints, and only collect messages of the given
+   * level (and more severe ones), see {@link RingBufferLogPrintCollector}
+   *
+   * @param capacity the max. amount of prints kept
+   * @param level    the least severe level whose messages are collected
+   */
+  public static void init(int capacity, LogLevel level) {
+    init(new RingBufferLogPrintCollector(capacity, level));
+  }
+
+  /**
+   * Initialize the LogStub as Log (like init()), collecting the prints with
+   * the given collector
+   */
+  public static void init(LogPrintCollector printCollector) {
     LogStub l = new LogStub();
-    collector = new LogPrintCollector();
+    collector = printCollector;
     l.isTRACE = false;
     l.isDEBUG = false;
     l.isINFO = true;
-    l.logHooks = new ArrayList<>();
+    l.logHooks = new LogHookList();
     l.logHooks.add(collector);
     l.errorHook = new DefaultErrorHook();
     Log.setLog(l);
@@ -113,8 +142,9 @@ public class LogStub extends Log {
    * prints out all log messages to the console
    */
   public static void printPrints() {
-    for(int i = 0; i < collector.prints.size(); i++) {
-      System.out.printf("#%d : %s\n", i, collector.prints.get(i));
+    List<String> prints = collector.getPrints();
+    for(int i = 0; i < prints.size(); i++) {
+      System.out.printf("#%d : %s\n", i, prints.get(i));
     }
   }
 
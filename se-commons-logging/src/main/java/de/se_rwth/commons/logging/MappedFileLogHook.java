@@ -0,0 +1,180 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link FileLogHook} which encodes messages (as UTF-8) directly into a
+ * memory-mapped region of the log file, such that writing a message requires
+ * no system call. The region is pre-allocated in chunks of
+ * {@link #chunkSize} bytes; once a chunk is full, the next one is mapped.
+ * <p>
+ * While the hook is open, the file contains the (zero-filled) remainder of the
+ * current chunk. On {@link #close()} (or JVM shutdown), it is truncated to the
+ * written size. Messages logged afterwards are written by the
+ * {@link FileLogHook}.
+ */
+public class MappedFileLogHook extends FileLogHook implements AutoCloseable {
+
+  public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+  // the size (in bytes) of each mapped region
+  protected final int chunkSize;
+
+  protected final FileChannel channel;
+
+  // guarded by this
+  protected MappedByteBuffer buffer;
+
+  // the file offset of the mapped region
+  protected long chunkStart = 0;
+
+  protected final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  protected boolean closed = false;
+
+  // truncates the file on JVM shutdown
+  protected final Thread shutdownHook;
+
+  public MappedFileLogHook(String fileName) {
+    this(fileName, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param fileName  the log file, truncated on construction
+   * @param chunkSize the size (in bytes) of each mapped region
+   */
+  public MappedFileLogHook(String fileName, int chunkSize) {
+    super(fileName);
+    if (chunkSize < 1024) {
+      throw new IllegalArgumentException("Invalid chunk size for the file logger `" + fileName + "`.");
+    }
+    this.chunkSize = chunkSize;
+    try {
+      this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, chunkSize);
+    } catch (IOException e) {
+      System.err.println("Initialization the file logger `" + fileName + "` threw ");
+      e.printStackTrace(System.err);
+      throw new MCFatalError(e.getMessage());
+    }
+    this.shutdownHook = new Thread(this::close);
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  @Override
+  public void doPrintln(String msg) {
+    write(msg, true);
+  }
+
+  @Override
+  public void doPrint(String msg) {
+    write(msg, false);
+  }
+
+  @Override
+  public void doPrintStackTrace(Throwable t) {
+    StringBuilder output = new StringBuilder();
+    for (StackTraceElement e : t.getStackTrace()) {
+      output.append(e).append("\n");
+    }
+    write(output, true);
+  }
+
+  protected synchronized void write(CharSequence msg, boolean newLine) {
+    if (closed) {
+      String s = msg.toString();
+      if (newLine) {
+        super.doPrintln(s);
+      } else {
+        super.doPrint(s);
+      }
+      return;
+    }
+    encode(CharBuffer.wrap(msg));
+    if (newLine) {
+      encode(CharBuffer.wrap(System.lineSeparator()));
+    }
+  }
+
+  protected void encode(CharBuffer chars) {
+    encoder.reset();
+    while (true) {
+      CoderResult result = encoder.encode(chars, buffer, true);
+      if (result.isUnderflow()) {
+        result = encoder.flush(buffer);
+      }
+      if (!result.isOverflow()) {
+        return;
+      }
+      nextChunk();
+    }
+  }
+
+  /**
+   * Maps the region following the written bytes
+   */
+  protected void nextChunk() {
+    chunkStart += buffer.position();
+    try {
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, chunkSize);
+    } catch (IOException e) {
+      System.err.printf("Growing the file logger `%s` threw ", fileName);
+      e.printStackTrace(System.err);
+      throw new MCFatalError(e.getMessage());
+    }
+  }
+
+  /**
+   * @return the amount of bytes written
+   */
+  public synchronized long getSize() {
+    return chunkStart + (buffer == null ? 0 : buffer.position());
+  }
+
+  /**
+   * Truncates the file to the written size and closes it.
+   * Messages logged afterwards are appended by the {@link FileLogHook}.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    long size = getSize();
+    chunkStart = size;
+    // the mapping is released by the garbage collector; truncating the file
+    // beforehand is supported on POSIX systems, but not on Windows
+    buffer = null;
+    try {
+      channel.truncate(size);
+    } catch (IOException e) {
+      System.err.printf("Truncating the file logger `%s` threw ", fileName);
+      e.printStackTrace(System.err);
+    } finally {
+      try {
+        channel.close();
+      } catch (IOException ignored) {
+      }
+    }
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException ignored) {
+      // shutdown is already in progress
+    }
+  }
+
+}
@@ -0,0 +1,245 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.util.Arrays;
+
+/**
+ * Renders log messages into a reusable, per-thread {@link StringBuilder}
+ * instead of using {@link String#format(String, Object...)}.
+ * <p>
+ * Templates use <code>{}</code> as placeholder for the next argument
+ * (<code>\{}</code> escapes a placeholder). Surplus arguments are ignored,
+ * surplus placeholders are kept.
+ */
+public final class MessageFormatter {
+
+  protected static final String PLACEHOLDER = "{}";
+
+  // builders growing larger are not reused, such that we do not keep huge buffers
+  protected static final int MAX_REUSED_CAPACITY = 16 * 1024;
+
+  protected static final class Buffer {
+    protected StringBuilder builder = new StringBuilder(256);
+
+    protected boolean inUse = false;
+  }
+
+  protected static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+  /* Utility class. */
+  private MessageFormatter() {
+  }
+
+  /**
+   * Borrow the (empty) builder of the current thread. Must be given back using
+   * {@link #release(StringBuilder)}. Nested calls (e.g. by a toString() of an
+   * argument which logs itself) receive a fresh builder.
+   */
+  public static StringBuilder acquire() {
+    Buffer buffer = BUFFER.get();
+    if (buffer.inUse) {
+      return new StringBuilder(64);
+    }
+    buffer.inUse = true;
+    buffer.builder.setLength(0);
+    return buffer.builder;
+  }
+
+  /**
+   * Give back a builder borrowed by {@link #acquire()}
+   */
+  public static void release(StringBuilder builder) {
+    Buffer buffer = BUFFER.get();
+    if (buffer.builder == builder) {
+      if (builder.capacity() > MAX_REUSED_CAPACITY) {
+        buffer.builder = new StringBuilder(256);
+      }
+      buffer.inUse = false;
+    }
+  }
+
+  /**
+   * @return the template with the placeholder replaced by the argument
+   */
+  public static String format(String template, Object arg) {
+    if (template == null) {
+      return null;
+    }
+    StringBuilder sb = acquire();
+    try {
+      appendFormatted(sb, template, 1, arg, null, null);
+      return sb.toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * @return the template with the placeholders replaced by the arguments
+   */
+  public static String format(String template, Object arg1, Object arg2) {
+    if (template == null) {
+      return null;
+    }
+    StringBuilder sb = acquire();
+    try {
+      appendFormatted(sb, template, 2, arg1, arg2, null);
+      return sb.toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * @return the template with the placeholders replaced by the arguments
+   */
+  public static String format(String template, Object... args) {
+    if (template == null || args == null || args.length == 0) {
+      return template;
+    }
+    StringBuilder sb = acquire();
+    try {
+      appendFormatted(sb, template, args);
+      return sb.toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * Appends the template with the placeholders replaced by the arguments
+   */
+  public static void appendFormatted(StringBuilder sb, String template, Object[] args) {
+    appendFormatted(sb, template, args.length, null, null, args);
+  }
+
+  // the arguments are either given by args or (to avoid the array) by arg1 and arg2
+  protected static void appendFormatted(StringBuilder sb, String template, int count,
+                                        Object arg1, Object arg2, Object[] args) {
+    int start = 0;
+    int argIndex = 0;
+    while (argIndex < count) {
+      int index = template.indexOf(PLACEHOLDER, start);
+      if (index < 0) {
+        break;
+      }
+      if (index > 0 && template.charAt(index - 1) == '\\') {
+        // escaped placeholder: drop the backslash and keep the braces
+        sb.append(template, start, index - 1).append(PLACEHOLDER);
+        start = index + PLACEHOLDER.length();
+        continue;
+      }
+      sb.append(template, start, index);
+      appendArgument(sb, args != null ? args[argIndex] : argIndex == 0 ? arg1 : arg2);
+      argIndex++;
+      start = index + PLACEHOLDER.length();
+    }
+    sb.append(template, start, template.length());
+  }
+
+  protected static void appendArgument(StringBuilder sb, Object arg) {
+    if (arg instanceof Object[]) {
+      sb.append(Arrays.deepToString((Object[]) arg));
+    } else {
+      sb.append(arg);
+    }
+  }
+
+  /**
+   * @return a log line of the form <code>"level logName msg"</code>
+   */
+  public static String line(String level, String logName, String msg) {
+    StringBuilder sb = acquire();
+    try {
+      return appendLine(sb, level, logName, msg).toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * @return a log line of the form <code>"level logName pos:msg"</code>
+   */
+  public static String line(String level, String logName, SourcePosition pos, String msg) {
+    StringBuilder sb = acquire();
+    try {
+      return appendLine(sb, level, logName, pos, msg).toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * @return a log line of the form <code>"level logName start - end:msg"</code>
+   */
+  public static String line(String level, String logName, SourcePosition start,
+                            SourcePosition end, String msg) {
+    StringBuilder sb = acquire();
+    try {
+      return appendLine(sb, level, logName, start, end, msg).toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * @return a log line of the form <code>"level finding"</code>
+   */
+  public static String line(String level, Finding finding) {
+    StringBuilder sb = acquire();
+    try {
+      return appendLine(sb, level, finding).toString();
+    } finally {
+      release(sb);
+    }
+  }
+
+  /**
+   * Appends a log line of the form <code>"level logName msg"</code>
+   *
+   * @return the builder
+   */
+  public static StringBuilder appendLine(StringBuilder sb, String level, String logName, String msg) {
+    return sb.append(level).append(logName).append(' ').append(msg);
+  }
+
+  /**
+   * Appends a log line of the form <code>"level logName pos:msg"</code>
+   *
+   * @return the builder
+   */
+  public static StringBuilder appendLine(StringBuilder sb, String level, String logName,
+                                         SourcePosition pos, String msg) {
+    return sb.append(level).append(logName).append(' ').append(pos.toString()).append(':').append(msg);
+  }
+
+  /**
+   * Appends a log line of the form <code>"level logName start - end:msg"</code>
+   *
+   * @return the builder
+   */
+  public static StringBuilder appendLine(StringBuilder sb, String level, String logName,
+                                         SourcePosition start, SourcePosition end, String msg) {
+    return sb.append(level).append(logName).append(' ').append(start.toString())
+        .append(" - ").append(end.toString()).append(':').append(msg);
+  }
+
+  /**
+   * Appends a log line of the form <code>"level finding"</code>
+   *
+   * @return the builder
+   */
+  public static StringBuilder appendLine(StringBuilder sb, String level, Finding finding) {
+    sb.append(level);
+    if (finding.getClass() == Finding.class) {
+      finding.buildMsg(sb);
+    } else {
+      // respect customized representations of subclasses
+      sb.append(finding);
+    }
+    return sb;
+  }
+
+}
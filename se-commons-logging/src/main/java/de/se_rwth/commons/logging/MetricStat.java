@@ -0,0 +1,169 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.util.Arrays;
+
+/**
+ * An immutable summary of a named metric recorded via {@link Metrics}.
+ * <p>
+ * Values are bucketed by their bit length (i.e. in powers of two), such that
+ * percentiles are estimated as the upper bound of the bucket they fall into.
+ * Stats can be converted from and to a plain <code>long[]</code>, which allows
+ * them to be passed between (isolated) class loaders and to be merged.
+ */
+public class MetricStat {
+
+  public enum Kind {
+    COUNTER, HISTOGRAM, TIMER
+  }
+
+  // the layout of the values: kind, count, sum, min, max, buckets
+  protected static final int KIND = 0;
+
+  protected static final int COUNT = 1;
+
+  protected static final int SUM = 2;
+
+  protected static final int MIN = 3;
+
+  protected static final int MAX = 4;
+
+  protected static final int BUCKETS = 5;
+
+  // one bucket per bit length, including 0
+  public static final int BUCKET_COUNT = 65;
+
+  public static final int VALUES_LENGTH = BUCKETS + BUCKET_COUNT;
+
+  protected final String name;
+
+  protected final long[] values;
+
+  public MetricStat(String name, long[] values) {
+    if (values.length != VALUES_LENGTH || values[KIND] < 0 || values[KIND] >= Kind.values().length) {
+      throw new IllegalArgumentException("Invalid values of metric " + name + ".");
+    }
+    this.name = name;
+    this.values = values.clone();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Kind getKind() {
+    return Kind.values()[(int) values[KIND]];
+  }
+
+  /**
+   * @return the amount of recorded values (or increments of a counter)
+   */
+  public long getCount() {
+    return values[COUNT];
+  }
+
+  /**
+   * @return the sum of the recorded values, i.e. the value of a counter or
+   * the total nanoseconds of a timer
+   */
+  public long getSum() {
+    return values[SUM];
+  }
+
+  public long getMin() {
+    return values[COUNT] == 0 ? 0 : values[MIN];
+  }
+
+  public long getMax() {
+    return values[COUNT] == 0 ? 0 : values[MAX];
+  }
+
+  public double getMean() {
+    return values[COUNT] == 0 ? 0 : (double) values[SUM] / values[COUNT];
+  }
+
+  /**
+   * @param p the percentile, between 0 and 1
+   * @return the estimated value below which the given share of values fall
+   */
+  public long getPercentile(double p) {
+    long count = values[COUNT];
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(p * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += values[BUCKETS + i];
+      if (seen >= rank) {
+        long upper = i == 0 ? 0 : i == 64 ? Long.MAX_VALUE : (1L << i) - 1;
+        return Math.max(getMin(), Math.min(getMax(), upper));
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * @return a copy of the values, see {@link #MetricStat(String, long[])}
+   */
+  public long[] toValues() {
+    return values.clone();
+  }
+
+  /**
+   * @return the stat combining the values of this and the other stat
+   */
+  public MetricStat merge(MetricStat other) {
+    return new MetricStat(name, merge(values, other.values));
+  }
+
+  /**
+   * Combines the values of two stats of the same kind
+   */
+  public static long[] merge(long[] a, long[] b) {
+    if (a[KIND] != b[KIND]) {
+      throw new IllegalArgumentException("Unable to merge metrics of different kinds.");
+    }
+    long[] result = a.clone();
+    for (int i = COUNT; i < VALUES_LENGTH; i++) {
+      if (i == MIN) {
+        result[i] = a[COUNT] == 0 ? b[i] : b[COUNT] == 0 ? a[i] : Math.min(a[i], b[i]);
+      } else if (i == MAX) {
+        result[i] = a[COUNT] == 0 ? b[i] : b[COUNT] == 0 ? a[i] : Math.max(a[i], b[i]);
+      } else {
+        result[i] += b[i];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the bucket of a (non-negative) value
+   */
+  protected static int bucket(long value) {
+    return value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof MetricStat)) {
+      return false;
+    }
+    MetricStat that = (MetricStat) o;
+    return name.equals(that.name) && Arrays.equals(values, that.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * name.hashCode() + Arrays.hashCode(values);
+  }
+
+  @Override
+  public String toString() {
+    return name + " " + getKind() + " count=" + getCount() + " sum=" + getSum();
+  }
+
+}
@@ -0,0 +1,275 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lightweight instrumentation of tools, e.g. to time phases such as parsing,
+ * symbol table creation and generation. Metrics are identified by names,
+ * which are structured like log names (e.g. <code>mc.parse</code>):
+ * <ul>
+ *   <li>counters, see {@link #count(String, long)}</li>
+ *   <li>histograms of arbitrary values, see {@link #record(String, long)}</li>
+ *   <li>timers, i.e. histograms of nanoseconds, see {@link #start(String)}</li>
+ * </ul>
+ * Metrics are disabled by default (unless the system property
+ * {@value #ENABLED_PROPERTY} is <code>true</code>), in which case recording
+ * only reads a volatile flag and allocates nothing.
+ * <p>
+ * At the end of a run, {@link #report()} passes the summaries of all metrics
+ * to the registered sinks, e.g. a {@link MetricsTableSink}. The values of a
+ * run can be exported as plain arrays ({@link #drainValues()}), such that
+ * runs within isolated class loaders can be aggregated outside of them.
+ */
+public class Metrics {
+
+  public static final String ENABLED_PROPERTY = "de.se_rwth.commons.metrics";
+
+  protected static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+  protected static final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+  protected static final List<IMetricsSink> sinks = new CopyOnWriteArrayList<>();
+
+  /**
+   * A running timer, which records the elapsed time when closed
+   */
+  public static class Stopwatch implements AutoCloseable {
+
+    protected final Recorder recorder;
+
+    protected final long start;
+
+    protected Stopwatch(Recorder recorder, long start) {
+      this.recorder = recorder;
+      this.start = start;
+    }
+
+    /**
+     * Records the time since the start, may be called once
+     */
+    @Override
+    public void close() {
+      if (recorder != null) {
+        recorder.record(System.nanoTime() - start);
+      }
+    }
+  }
+
+  // returned while disabled
+  protected static final Stopwatch NOOP = new Stopwatch(null, 0);
+
+  /**
+   * The values of a metric, which may be recorded concurrently
+   */
+  protected static class Recorder {
+
+    protected final MetricStat.Kind kind;
+
+    protected final LongAdder count = new LongAdder();
+
+    protected final LongAdder sum = new LongAdder();
+
+    protected final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    protected final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    protected final AtomicLongArray buckets = new AtomicLongArray(MetricStat.BUCKET_COUNT);
+
+    protected Recorder(MetricStat.Kind kind) {
+      this.kind = kind;
+    }
+
+    protected void increment(long delta) {
+      count.increment();
+      sum.add(delta);
+    }
+
+    protected void record(long value) {
+      count.increment();
+      sum.add(value);
+      min.accumulate(value);
+      max.accumulate(value);
+      buckets.incrementAndGet(MetricStat.bucket(value));
+    }
+
+    protected long[] toValues() {
+      long[] values = new long[MetricStat.VALUES_LENGTH];
+      values[MetricStat.KIND] = kind.ordinal();
+      values[MetricStat.COUNT] = count.sum();
+      values[MetricStat.SUM] = sum.sum();
+      if (kind != MetricStat.Kind.COUNTER) {
+        values[MetricStat.MIN] = min.get();
+        values[MetricStat.MAX] = max.get();
+        for (int i = 0; i < MetricStat.BUCKET_COUNT; i++) {
+          values[MetricStat.BUCKETS + i] = buckets.get(i);
+        }
+      }
+      return values;
+    }
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables the recording of metrics. Disabling keeps the values
+   * recorded so far.
+   */
+  public static void setEnabled(boolean enabled) {
+    Metrics.enabled = enabled;
+  }
+
+  protected static Recorder recorder(String name, MetricStat.Kind kind) {
+    Recorder recorder = recorders.get(name);
+    if (recorder == null) {
+      recorder = recorders.computeIfAbsent(name, n -> new Recorder(kind));
+    }
+    if (recorder.kind != kind) {
+      throw new IllegalArgumentException("The metric " + name + " is a " + recorder.kind
+          + ", not a " + kind + ".");
+    }
+    return recorder;
+  }
+
+  /**
+   * Increments a counter by one
+   */
+  public static void count(String name) {
+    if (enabled) {
+      recorder(name, MetricStat.Kind.COUNTER).increment(1);
+    }
+  }
+
+  /**
+   * Increments a counter by the given delta
+   */
+  public static void count(String name, long delta) {
+    if (enabled) {
+      recorder(name, MetricStat.Kind.COUNTER).increment(delta);
+    }
+  }
+
+  /**
+   * Records a value of a histogram, e.g. the size of a model
+   */
+  public static void record(String name, long value) {
+    if (enabled) {
+      recorder(name, MetricStat.Kind.HISTOGRAM).record(value);
+    }
+  }
+
+  /**
+   * Starts a timer, which records the elapsed time when closed, e.g.
+   * <pre>
+   *   try (Metrics.Stopwatch s = Metrics.start("mc.parse")) {
+   *     ...
+   *   }
+   * </pre>
+   */
+  public static Stopwatch start(String name) {
+    if (!enabled) {
+      return NOOP;
+    }
+    return new Stopwatch(recorder(name, MetricStat.Kind.TIMER), System.nanoTime());
+  }
+
+  /**
+   * Records the duration of the given action
+   */
+  public static void time(String name, Runnable action) {
+    Stopwatch s = start(name);
+    try {
+      action.run();
+    } finally {
+      s.close();
+    }
+  }
+
+  /**
+   * Records the duration of the given action
+   *
+   * @return the result of the action
+   */
+  public static <T> T time(String name, Supplier<T> action) {
+    Stopwatch s = start(name);
+    try {
+      return action.get();
+    } finally {
+      s.close();
+    }
+  }
+
+  /**
+   * Records the duration of a phase which has been measured elsewhere
+   */
+  public static void recordNanos(String name, long nanos) {
+    if (enabled) {
+      recorder(name, MetricStat.Kind.TIMER).record(nanos);
+    }
+  }
+
+  /**
+   * @return the summaries of all metrics, sorted by name
+   */
+  public static List<MetricStat> getStats() {
+    List<MetricStat> stats = new ArrayList<>();
+    new TreeMap<>(recorders).forEach((name, r) -> stats.add(new MetricStat(name, r.toValues())));
+    return stats;
+  }
+
+  /**
+   * Removes all metrics recorded so far
+   */
+  public static void clear() {
+    recorders.clear();
+  }
+
+  /**
+   * Removes all metrics recorded so far
+   *
+   * @return their values by name, see {@link MetricStat#toValues()}
+   */
+  public static Map<String, long[]> drainValues() {
+    Map<String, long[]> values = new TreeMap<>();
+    for (String name : new ArrayList<>(recorders.keySet())) {
+      Recorder r = recorders.remove(name);
+      if (r != null) {
+        values.put(name, r.toValues());
+      }
+    }
+    return values;
+  }
+
+  public static void addSink(IMetricsSink sink) {
+    sinks.add(Log.errorIfNull(sink));
+  }
+
+  public static void removeSink(IMetricsSink sink) {
+    sinks.remove(sink);
+  }
+
+  /**
+   * Passes the summaries of all metrics to the registered sinks
+   */
+  public static void report() {
+    if (sinks.isEmpty() || recorders.isEmpty()) {
+      return;
+    }
+    List<MetricStat> stats = getStats();
+    for (IMetricsSink sink : sinks) {
+      sink.report(stats);
+    }
+  }
+
+}
@@ -0,0 +1,63 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Prints the summaries of the metrics as a table, e.g.
+ * <pre>
+ * metric                      kind       count       total        mean         p95         max
+ * mc.generate                 timer          2   812.40 ms   406.20 ms   536.87 ms   601.30 ms
+ * mc.parse                    timer         12   120.10 ms    10.01 ms    30.20 ms    30.20 ms
+ * mc.parse.files              counter       12          12
+ * </pre>
+ * Times are printed in milliseconds. By default, the lines are printed via
+ * {@link Log#println(String)}, i.e. by the log hooks.
+ */
+public class MetricsTableSink implements IMetricsSink {
+
+  protected final Consumer<String> out;
+
+  public MetricsTableSink() {
+    this(Log::println);
+  }
+
+  /**
+   * @param out receives the lines of the table
+   */
+  public MetricsTableSink(Consumer<String> out) {
+    this.out = out;
+  }
+
+  @Override
+  public void report(List<MetricStat> stats) {
+    int width = "metric".length();
+    for (MetricStat stat : stats) {
+      width = Math.max(width, stat.getName().length());
+    }
+    String row = "%-" + width + "s  %-9s %6s %11s %11s %11s %11s";
+    out.accept(String.format(Locale.ROOT, row, "metric", "kind", "count", "total", "mean", "p95", "max").trim());
+    for (MetricStat stat : stats) {
+      String kind = stat.getKind().name().toLowerCase(Locale.ROOT);
+      if (stat.getKind() == MetricStat.Kind.COUNTER) {
+        out.accept(String.format(Locale.ROOT, row, stat.getName(), kind, stat.getCount(), stat.getSum(),
+            "", "", "").trim());
+      } else {
+        boolean time = stat.getKind() == MetricStat.Kind.TIMER;
+        out.accept(String.format(Locale.ROOT, row, stat.getName(), kind, stat.getCount(),
+            format(stat.getSum(), time), format(stat.getMean(), time),
+            format(stat.getPercentile(0.95), time), format(stat.getMax(), time)));
+      }
+    }
+  }
+
+  protected String format(double value, boolean nanos) {
+    if (nanos) {
+      return String.format(Locale.ROOT, "%.2f ms", value / 1_000_000);
+    }
+    return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.2f", value);
+  }
+
+}
@@ -0,0 +1,185 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link LogPrintCollector} which keeps only the most recent prints, such
+ * that large test suites do not retain every printed line. Once the capacity
+ * is reached, each print replaces the oldest one. In addition, trace, debug
+ * and info messages less severe than a minimum level may be dropped.
+ * <p>
+ * Unlike its superclass, this collector is thread-safe, and
+ * {@link #getPrints()} returns a copy of the current prints (oldest first).
+ */
+public class RingBufferLogPrintCollector extends LogPrintCollector {
+
+  // the least severe level which is collected, warnings and errors are always collected
+  protected final LogLevel level;
+
+  // guarded by this
+  protected final String[] ring;
+
+  // the index of the next print
+  protected int next = 0;
+
+  protected int size = 0;
+
+  // the amount of prints replaced by newer ones
+  protected long overwritten = 0;
+
+  /**
+   * @param capacity the max. amount of prints kept
+   */
+  public RingBufferLogPrintCollector(int capacity) {
+    this(capacity, LogLevel.TRACE);
+  }
+
+  /**
+   * @param capacity the max. amount of prints kept
+   * @param level    the least severe level whose messages are collected
+   */
+  public RingBufferLogPrintCollector(int capacity, LogLevel level) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity of the print collector must be positive.");
+    }
+    this.ring = new String[capacity];
+    this.level = Log.errorIfNull(level);
+  }
+
+  public int getCapacity() {
+    return ring.length;
+  }
+
+  public LogLevel getLevel() {
+    return level;
+  }
+
+  /**
+   * @return the amount of prints which have been replaced by newer ones
+   * since the last {@link #clearPrints()}
+   */
+  public synchronized long getOverwrittenCount() {
+    return overwritten;
+  }
+
+  protected synchronized void add(String print) {
+    ring[next] = print;
+    next = next + 1 == ring.length ? 0 : next + 1;
+    if (size < ring.length) {
+      size++;
+    } else {
+      overwritten++;
+    }
+  }
+
+  /**
+   * Reset the prints, keeping the buffer
+   */
+  @Override
+  public synchronized void clearPrints() {
+    Arrays.fill(ring, null);
+    next = 0;
+    size = 0;
+    overwritten = 0;
+  }
+
+  /**
+   * Get a copy of the most recent prints, oldest first
+   */
+  @Override
+  public synchronized List<String> getPrints() {
+    List<String> result = new ArrayList<>(size);
+    int start = next - size < 0 ? next - size + ring.length : next - size;
+    for (int i = 0; i < size; i++) {
+      result.add(ring[(start + i) % ring.length]);
+    }
+    return result;
+  }
+
+  @Override
+  public void doTrace(String msg, String logName) {
+    if (level.isTraceEnabled()) {
+      super.doTrace(msg, logName);
+    }
+  }
+
+  @Override
+  public void doTrace(String msg, Throwable t, String logName) {
+    if (level.isTraceEnabled()) {
+      super.doTrace(msg, t, logName);
+    }
+  }
+
+  @Override
+  public void doDebug(String msg, String logName) {
+    if (level.isDebugEnabled()) {
+      super.doDebug(msg, logName);
+    }
+  }
+
+  @Override
+  public void doDebug(String msg, SourcePosition pos, String logName) {
+    if (level.isDebugEnabled()) {
+      super.doDebug(msg, pos, logName);
+    }
+  }
+
+  @Override
+  public void doDebug(String msg, SourcePosition start, SourcePosition end, String logName) {
+    if (level.isDebugEnabled()) {
+      super.doDebug(msg, start, end, logName);
+    }
+  }
+
+  @Override
+  public void doDebug(String msg, Throwable t, String logName) {
+    if (level.isDebugEnabled()) {
+      super.doDebug(msg, t, logName);
+    }
+  }
+
+  @Override
+  public void doInfo(String msg, String logName) {
+    if (level.isInfoEnabled()) {
+      super.doInfo(msg, logName);
+    }
+  }
+
+  @Override
+  public void doInfo(String msg, Throwable t, String logName) {
+    if (level.isInfoEnabled()) {
+      super.doInfo(msg, t, logName);
+    }
+  }
+
+  @Override
+  public void doPrint(String msg) {
+    add(msg);
+  }
+
+  @Override
+  public void doPrintln(String msg) {
+    add(msg + System.lineSeparator());
+  }
+
+  @Override
+  public void doErrPrint(String msg) {
+    add("Error: " + msg);
+  }
+
+  @Override
+  public void doPrintStackTrace(Throwable t) {
+    add("Stacktrace of " + t.getClass() + " object");
+  }
+
+  @Override
+  public void doErrPrintStackTrace(Throwable t) {
+    add("Error: Stacktrace of " + t.getClass() + " object");
+  }
+
+}
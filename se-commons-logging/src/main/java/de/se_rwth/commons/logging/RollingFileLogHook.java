@@ -0,0 +1,294 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link AsyncFileLogHook} which bounds the size of its log file. Once the
+ * file exceeds {@link #maxFileSize} bytes or was started more than
+ * {@link #rollIntervalMillis} ago, it is rolled before the next batch is
+ * written: The file is renamed to a numbered segment (e.g.
+ * <code>log.txt.3</code>) and a new file is started. A background thread
+ * compresses the segment (<code>log.txt.3.gz</code>) and deletes the oldest
+ * segments beyond {@link #maxSegments}.
+ * <p>
+ * Unlike the other file hooks, an existing log file is not truncated on
+ * construction, but rolled, such that the logs of previous runs are kept.
+ */
+public class RollingFileLogHook extends AsyncFileLogHook {
+
+  public static final long DEFAULT_MAX_FILE_SIZE = 64L * 1024 * 1024; // bytes
+
+  public static final int DEFAULT_MAX_SEGMENTS = 10;
+
+  protected static final String GZIP_SUFFIX = ".gz";
+
+  // max. size (in bytes) of the log file before it is rolled, or 0
+  protected final long maxFileSize;
+
+  // max. age (in ms) of the log file before it is rolled, or 0
+  protected final long rollIntervalMillis;
+
+  // max. amount of rolled segments which are kept
+  protected final int maxSegments;
+
+  // compresses and deletes segments
+  protected final ExecutorService compressor;
+
+  // the number of the next segment, used by the writer thread
+  protected long nextSegment;
+
+  // when the current file was started
+  protected long started = System.currentTimeMillis();
+
+  /**
+   * @param fileName    the log file
+   * @param maxFileSize the max. size (in bytes) of the log file before it is
+   *                    rolled
+   * @param maxSegments the max. amount of rolled segments which are kept
+   */
+  public RollingFileLogHook(String fileName, long maxFileSize, int maxSegments) {
+    this(fileName, maxFileSize, 0, maxSegments);
+  }
+
+  /**
+   * @param fileName           the log file
+   * @param maxFileSize        the max. size (in bytes) of the log file before
+   *                           it is rolled, or 0 for no maximum
+   * @param rollIntervalMillis the max. age (in ms) of the log file before it
+   *                           is rolled, or 0 for no maximum
+   * @param maxSegments        the max. amount of rolled segments which are kept
+   */
+  public RollingFileLogHook(String fileName, long maxFileSize, long rollIntervalMillis, int maxSegments) {
+    this(fileName, maxFileSize, rollIntervalMillis, maxSegments,
+        DEFAULT_CAPACITY, DEFAULT_FLUSH_SIZE, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * @param fileName            the log file
+   * @param maxFileSize         the max. size (in bytes) of the log file before
+   *                            it is rolled, or 0 for no maximum
+   * @param rollIntervalMillis  the max. age (in ms) of the log file before it
+   *                            is rolled, or 0 for no maximum
+   * @param maxSegments         the max. amount of rolled segments which are kept
+   * @param capacity            the max. amount of buffered messages
+   * @param flushSize           the max. amount of messages written at once
+   * @param flushIntervalMillis the max. time (in ms) a message is buffered
+   */
+  public RollingFileLogHook(String fileName, long maxFileSize, long rollIntervalMillis, int maxSegments,
+                            int capacity, int flushSize, long flushIntervalMillis) {
+    // the existing file must be rolled before the superclass truncates it
+    super(rollExisting(fileName), capacity, flushSize, flushIntervalMillis);
+    if (maxFileSize < 0 || rollIntervalMillis < 0 || maxSegments < 0) {
+      close();
+      throw new IllegalArgumentException("Invalid rolling configuration for the file logger `"
+          + fileName + "`.");
+    }
+    this.maxFileSize = maxFileSize;
+    this.rollIntervalMillis = rollIntervalMillis;
+    this.maxSegments = maxSegments;
+    this.compressor = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "RollingFileLogHook-" + fileName);
+      t.setDaemon(true);
+      return t;
+    });
+    this.nextSegment = lastSegment(Paths.get(fileName)) + 1;
+    // compress the segment rolled on construction
+    this.compressor.execute(this::compressSegments);
+  }
+
+  /**
+   * Renames an existing, non-empty log file to the next segment
+   *
+   * @return the file name
+   */
+  protected static String rollExisting(String fileName) {
+    Path file = Paths.get(fileName);
+    try {
+      if (Files.isRegularFile(file) && Files.size(file) > 0) {
+        Files.move(file, segment(file, lastSegment(file) + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      System.err.println("Rolling the log file `" + fileName + "` threw ");
+      e.printStackTrace(System.err);
+      throw new MCFatalError(e.getMessage());
+    }
+    return fileName;
+  }
+
+  protected static Path segment(Path file, long number) {
+    return file.resolveSibling(file.getFileName() + "." + number);
+  }
+
+  /**
+   * @return the number of a segment file (compressed or not), or -1 if the
+   * file is no segment of the log file
+   */
+  protected static long segmentNumber(Path file, Path segment) {
+    String prefix = file.getFileName() + ".";
+    String name = segment.getFileName().toString();
+    if (!name.startsWith(prefix)) {
+      return -1;
+    }
+    String number = name.substring(prefix.length());
+    if (number.endsWith(GZIP_SUFFIX)) {
+      number = number.substring(0, number.length() - GZIP_SUFFIX.length());
+    }
+    if (number.isEmpty() || number.length() > 18) {
+      return -1;
+    }
+    for (int i = 0; i < number.length(); i++) {
+      if (!Character.isDigit(number.charAt(i))) {
+        return -1;
+      }
+    }
+    return Long.parseLong(number);
+  }
+
+  /**
+   * @return the segments of the log file, sorted by their number
+   */
+  protected static List<Path> segments(Path file) throws IOException {
+    List<Path> segments = new ArrayList<>();
+    Path dir = file.toAbsolutePath().getParent();
+    if (dir == null || !Files.isDirectory(dir)) {
+      return segments;
+    }
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, file.getFileName() + ".*")) {
+      for (Path p : stream) {
+        if (segmentNumber(file, p) >= 0) {
+          segments.add(p);
+        }
+      }
+    }
+    segments.sort((a, b) -> Long.compare(segmentNumber(file, a), segmentNumber(file, b)));
+    return segments;
+  }
+
+  /**
+   * @return the highest number of an existing segment, or 0
+   */
+  protected static long lastSegment(Path file) {
+    try {
+      List<Path> segments = segments(file);
+      return segments.isEmpty() ? 0 : segmentNumber(file, segments.get(segments.size() - 1));
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * @return the numbered segments, whether compressed or not
+   */
+  public List<Path> getSegments() {
+    try {
+      return Collections.unmodifiableList(segments(Paths.get(fileName)));
+    } catch (IOException e) {
+      return Collections.emptyList();
+    }
+  }
+
+  @Override
+  protected void write(CharSequence chars, CharsetEncoder encoder, ByteBuffer bytes) throws IOException {
+    if (shouldRoll()) {
+      roll();
+    }
+    super.write(chars, encoder, bytes);
+  }
+
+  /**
+   * @return whether the current file is to be rolled before it is written
+   */
+  protected boolean shouldRoll() throws IOException {
+    return (maxFileSize > 0 && channel.size() >= maxFileSize)
+        || (rollIntervalMillis > 0 && System.currentTimeMillis() - started >= rollIntervalMillis
+        && channel.size() > 0);
+  }
+
+  /**
+   * Renames the current file to the next segment, starts a new file, and
+   * schedules the compression of the segment. Called by the writer thread.
+   */
+  protected void roll() throws IOException {
+    channel.close();
+    Path file = Paths.get(fileName);
+    Files.move(file, segment(file, nextSegment++), StandardCopyOption.REPLACE_EXISTING);
+    channel = openChannel();
+    started = System.currentTimeMillis();
+    compressor.execute(this::compressSegments);
+  }
+
+  /**
+   * Compresses all uncompressed segments and deletes the oldest segments
+   * beyond the maximum. Called by the compressor thread.
+   */
+  protected void compressSegments() {
+    Path file = Paths.get(fileName);
+    try {
+      List<Path> segments = segments(file);
+      for (int i = 0; i < segments.size(); i++) {
+        Path segment = segments.get(i);
+        if (!segment.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+          Path compressed = segment.resolveSibling(segment.getFileName() + GZIP_SUFFIX);
+          compress(segment, compressed);
+          segments.set(i, compressed);
+        }
+      }
+      for (int i = 0; i < segments.size() - maxSegments; i++) {
+        Files.deleteIfExists(segments.get(i));
+      }
+    } catch (IOException e) {
+      // the uncompressed segment is kept and retried on the next roll
+      System.err.printf("Compressing the segments of the file logger `%s` threw ", fileName);
+      e.printStackTrace(System.err);
+    }
+  }
+
+  protected void compress(Path segment, Path compressed) throws IOException {
+    Path tmp = compressed.resolveSibling(compressed.getFileName() + ".tmp");
+    try (InputStream in = Files.newInputStream(segment);
+         OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+      byte[] buffer = new byte[64 * 1024];
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        out.write(buffer, 0, read);
+      }
+    }
+    Files.move(tmp, compressed, StandardCopyOption.REPLACE_EXISTING);
+    Files.delete(segment);
+  }
+
+  /**
+   * Writes all pending messages, closes the file, and waits for the
+   * compression of the rolled segments
+   */
+  @Override
+  public void close() {
+    super.close();
+    if (compressor != null) {
+      compressor.shutdown();
+      try {
+        compressor.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+}
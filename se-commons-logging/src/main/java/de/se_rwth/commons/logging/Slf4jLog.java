@@ -19,9 +19,10 @@ public class Slf4jLog {
   public static void replaceLogHooksWithSlf4j() {
     Log.getLog().logHooks.clear();
     Log.getLog().logHooks.add(new Slf4jLogHook());
-    Log.log.isDEBUG = true;
-    Log.log.isINFO = true;
-    Log.log.isTRACE = true;
+    Log.getLog().isDEBUG = true;
+    Log.getLog().isINFO = true;
+    Log.getLog().isTRACE = true;
+    Log.updateLevelMask();
   }
   
   /* Utility class. */
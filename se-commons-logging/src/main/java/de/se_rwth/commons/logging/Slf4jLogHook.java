@@ -2,92 +2,138 @@
 package de.se_rwth.commons.logging;
 
 import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static org.slf4j.Logger.ROOT_LOGGER_NAME;
 
 /**
  * The slf4j variant of {@link Log}. Use {@link Slf4jLog#replaceLogHooksWithSlf4j()} to enable
  * usage.
+ * <p>
+ * Messages are logged to the logger of their log name. Warnings and errors
+ * are logged to the logger of the component which reported them (see
+ * {@link Finding#getLogName()}), or the root logger if it is unknown.
+ * The loggers are cached, such that dispatching a message is a single lookup.
  */
 public class Slf4jLogHook implements ILogHook {
 
   // the slf4j logger factory (bound at runtime)
   ILoggerFactory factory = LoggerFactory.getILoggerFactory();
 
+  // do not let arbitrary log names grow the cache without bounds, further
+  // log names are resolved by the factory on every use
+  protected static final int MAX_CACHED_LOGGERS = 4096;
+
+  protected final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+
+  /**
+   * @return the (cached) logger of the log name, or the root logger if the
+   * log name is null
+   */
+  protected Logger getLogger(String logName) {
+    if (logName == null) {
+      logName = ROOT_LOGGER_NAME;
+    }
+    Logger logger = loggers.get(logName);
+    if (logger == null) {
+      logger = factory.getLogger(logName);
+      if (loggers.size() < MAX_CACHED_LOGGERS) {
+        loggers.put(logName, logger);
+      }
+    }
+    return logger;
+  }
+
+  /**
+   * @return the logger of the component which reported the finding
+   */
+  protected Logger getLogger(Finding finding) {
+    return getLogger(finding.getLogName().orElse(ROOT_LOGGER_NAME));
+  }
+
   protected boolean doIsSlf4jTraceEnabled(String logName) {
-    return factory.getLogger(logName).isTraceEnabled();
+    return getLogger(logName).isTraceEnabled();
   }
 
   protected boolean doIsSlf4jDebugEnabled(String logName) {
-    return factory.getLogger(logName).isDebugEnabled();
+    return getLogger(logName).isDebugEnabled();
   }
 
   protected boolean doIsSlf4jInfoEnabled(String logName) {
-    return factory.getLogger(logName).isInfoEnabled();
+    return getLogger(logName).isInfoEnabled();
   }
 
   @Override
   public void doTrace(String msg, String logName) {
-    if (this.doIsSlf4jTraceEnabled(logName)) {
-      factory.getLogger(logName).trace(msg);
+    Logger logger = getLogger(logName);
+    if (logger.isTraceEnabled()) {
+      logger.trace(msg);
     }
   }
 
   @Override
   public void doTrace(String msg, Throwable t, String logName) {
-    if (this.doIsSlf4jTraceEnabled(logName)) {
-      factory.getLogger(logName).trace(msg, t);
+    Logger logger = getLogger(logName);
+    if (logger.isTraceEnabled()) {
+      logger.trace(msg, t);
     }
   }
 
 
   @Override
   public void doDebug(String msg, String logName) {
-    if (this.doIsSlf4jDebugEnabled(logName)) {
-      factory.getLogger(logName).debug(msg);
+    Logger logger = getLogger(logName);
+    if (logger.isDebugEnabled()) {
+      logger.debug(msg);
     }
   }
 
   @Override
   public void doDebug(String msg, Throwable t, String logName) {
-    if (this.doIsSlf4jDebugEnabled(logName)) {
-      factory.getLogger(logName).debug(msg, t);
+    Logger logger = getLogger(logName);
+    if (logger.isDebugEnabled()) {
+      logger.debug(msg, t);
     }
   }
 
   @Override
   public void doInfo(String msg, String logName) {
-    if (this.doIsSlf4jInfoEnabled(logName)) {
-      factory.getLogger(logName).info(msg);
+    Logger logger = getLogger(logName);
+    if (logger.isInfoEnabled()) {
+      logger.info(msg);
     }
   }
 
   @Override
   public void doInfo(String msg, Throwable t, String logName) {
-    if (this.doIsSlf4jInfoEnabled(logName)) {
-      factory.getLogger(logName).info(msg, t);
+    Logger logger = getLogger(logName);
+    if (logger.isInfoEnabled()) {
+      logger.info(msg, t);
     }
   }
 
   @Override
   public void doWarn(Finding warn) {
-    factory.getLogger(ROOT_LOGGER_NAME).warn(warn.toString());
+    getLogger(warn).warn(warn.toString());
   }
 
   @Override
   public void doWarn(Finding warn, Throwable t) {
-    factory.getLogger(ROOT_LOGGER_NAME).warn(warn.toString(), t);
+    getLogger(warn).warn(warn.toString(), t);
   }
 
   @Override
   public void doError(Finding error) {
-    factory.getLogger(ROOT_LOGGER_NAME).error(error.toString());
+    getLogger(error).error(error.toString());
   }
 
   @Override
   public void doError(Finding error, Throwable t) {
-    factory.getLogger(ROOT_LOGGER_NAME).error(error.toString(), t);
+    getLogger(error).error(error.toString(), t);
   }
 
   @Override
@@ -0,0 +1,123 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the buffering of the console output
+ */
+public class BufferedConsoleLogHookTest {
+
+  protected PrintStream originalOut;
+
+  protected PrintStream originalErr;
+
+  protected ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  protected ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+  protected BufferedConsoleLogHook hook;
+
+  @Before
+  public void redirect() {
+    originalOut = System.out;
+    originalErr = System.err;
+    System.setOut(new PrintStream(out, true));
+    System.setErr(new PrintStream(err, true));
+  }
+
+  @After
+  public void restore() {
+    hook.close();
+    System.setOut(originalOut);
+    System.setErr(originalErr);
+  }
+
+  @Test
+  public void testBuffering() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    hook = new BufferedConsoleLogHook(false, 1024, 60_000);
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(hook);
+
+    Log.info("first", "a.component");
+    Log.warn("0xA0001 warning", new SourcePosition(1, 2));
+    assertEquals("", out.toString());
+
+    Log.error("0xA0002 error");
+    String n = System.lineSeparator();
+    assertEquals("[INFO]  a.component first" + n + "[WARN]  <1,2>: 0xA0001 warning" + n
+        + "[ERROR]  0xA0002 error" + n, out.toString());
+
+    Log.info("last", "a.component");
+    Log.flush();
+    assertEquals("[INFO]  a.component last" + n, out.toString().substring(out.toString().lastIndexOf('[')));
+  }
+
+  @Test
+  public void testPeriodicFlush() throws InterruptedException {
+    LogStub.init();
+    hook = new BufferedConsoleLogHook(false, 1024, 100);
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(hook);
+
+    // the (still running) thread does not log again, the line is written by
+    // the flushing thread
+    CountDownLatch written = new CountDownLatch(1);
+    Thread worker = new Thread(() -> {
+      Log.info("parsing", "a.component");
+      try {
+        written.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    worker.start();
+    long start = System.currentTimeMillis();
+    while (out.size() == 0 && System.currentTimeMillis() - start < 5000) {
+      Thread.sleep(10);
+    }
+    written.countDown();
+    worker.join();
+    assertEquals("[INFO]  a.component parsing" + System.lineSeparator(), out.toString());
+    assertTrue(BufferedConsoleLogHook.OPEN.contains(hook));
+    hook.close();
+    assertFalse(BufferedConsoleLogHook.OPEN.contains(hook));
+  }
+
+  @Test
+  public void testFindingsToErr() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    hook = new BufferedConsoleLogHook(true, 64, 60_000);
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(hook);
+
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      Log.info("info " + i, "a.component");
+      expected.append("[INFO]  a.component info ").append(i).append(System.lineSeparator());
+    }
+    // the info lines are written before the warning
+    Log.warn("0xA0001 warning");
+    assertEquals(expected.toString(), out.toString());
+    assertEquals("", err.toString());
+
+    hook.flush();
+    assertEquals("[WARN]  0xA0001 warning" + System.lineSeparator(), err.toString());
+  }
+
+}
@@ -0,0 +1,196 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the file based log hooks
+ */
+public class FileLogHookTest {
+
+  protected List<String> readLines(String fileName) throws IOException {
+    return Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testAsyncFileOutput() throws IOException {
+    LogStub.init();
+    String fileName = "target/test/AsyncLogOutput.txt";
+    AsyncFileLogHook hook = new AsyncFileLogHook(fileName, 16, 4, 10_000);
+    Log.addLogHook(hook);
+
+    for (int i = 0; i < 100; i++) {
+      Log.println("line " + i);
+    }
+    Log.flush();
+
+    List<String> lines = readLines(fileName);
+    assertEquals(100, lines.size());
+    assertEquals("line 0", lines.get(0));
+    assertEquals("line 99", lines.get(99));
+
+    hook.close();
+    // messages after closing are still written (synchronously)
+    Log.println("after close");
+    lines = readLines(fileName);
+    assertEquals("after close", lines.get(100));
+    Log.removeLogHook(hook);
+  }
+
+  @Test
+  public void testAsyncFileOutputFlushesOnError() throws IOException {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    String fileName = "target/test/AsyncLogError.txt";
+    // never flushes on its own within the test
+    AsyncFileLogHook hook = new AsyncFileLogHook(fileName, 1024, 1024, 60_000);
+    Log.addLogHook(hook);
+
+    Log.println("line 1");
+    Log.error("0xA0000 an error");
+    assertTrue(hook.flush(10_000));
+
+    List<String> lines = readLines(fileName);
+    assertEquals(2, lines.size());
+    assertEquals("[ERROR]  0xA0000 an error", lines.get(1));
+    hook.close();
+    Log.removeLogHook(hook);
+  }
+
+  @Test
+  public void testAsyncFileOutputFlushedBeforeTermination() throws IOException {
+    Log.init();
+    Log.getLog().logHooks.clear();
+    String fileName = "target/test/AsyncLogTermination.txt";
+    AsyncFileLogHook hook = new AsyncFileLogHook(fileName, 1024, 1024, 60_000);
+    Log.addLogHook(hook);
+    // the file contents and findings seen by the error hook
+    List<String> written = new ArrayList<>();
+    List<Finding> snapshot = new ArrayList<>();
+    Log.setErrorHook(new IErrorHook() {
+      @Override
+      public void terminate() {
+        fail("The snapshot of the findings has not been passed.");
+      }
+
+      @Override
+      public void terminate(List<Finding> findings) {
+        snapshot.addAll(findings);
+        try {
+          written.addAll(readLines(fileName));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        throw new MCFatalError("terminated");
+      }
+    });
+
+    Log.println("line 1");
+    try {
+      Log.error("0xA0000 an error");
+      fail("The error hook has not been invoked.");
+    } catch (MCFatalError e) {
+      assertEquals("terminated", e.getMessage());
+    }
+    assertEquals(2, written.size());
+    assertEquals("[ERROR]  0xA0000 an error", written.get(1));
+    assertEquals(1, snapshot.size());
+    assertTrue(snapshot.get(0).isError());
+    hook.close();
+    Log.removeLogHook(hook);
+  }
+
+  @Test
+  public void testRollingFileOutput() throws IOException {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    String fileName = "target/test/rolling/RollingLogOutput.txt";
+    Path dir = Paths.get(fileName).getParent();
+    if (Files.isDirectory(dir)) {
+      try (Stream<Path> files = Files.list(dir)) {
+        for (Path f : (Iterable<Path>) files::iterator) {
+          Files.delete(f);
+        }
+      }
+    }
+    Files.createDirectories(dir);
+    Files.write(Paths.get(fileName), Collections.singletonList("previous run"), StandardCharsets.UTF_8);
+
+    // rolls after every ~100 bytes, as each message is written on its own
+    RollingFileLogHook hook = new RollingFileLogHook(fileName, 100, 0, 3, 16, 1, 0);
+    Log.addLogHook(hook);
+    for (int i = 0; i < 100; i++) {
+      Log.println("line " + i);
+    }
+    hook.close();
+    Log.removeLogHook(hook);
+
+    // the oldest segments (including the previous run) have been deleted
+    List<Path> segments = hook.getSegments();
+    assertEquals(3, segments.size());
+    for (Path segment : segments) {
+      assertTrue(segment.toString().endsWith(".gz"));
+    }
+    List<String> lines = readLines(fileName);
+    assertEquals("line 99", lines.get(lines.size() - 1));
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(Files.newInputStream(segments.get(2))), StandardCharsets.UTF_8))) {
+      String last = null;
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        last = line;
+      }
+      assertEquals("line " + (99 - lines.size()), last);
+    }
+
+    // a new hook keeps the log of this run as segment
+    RollingFileLogHook next = new RollingFileLogHook(fileName, 100, 3);
+    next.close();
+    assertEquals(3, next.getSegments().size());
+    assertTrue(readLines(fileName).isEmpty());
+  }
+
+  @Test
+  public void testMappedFileOutput() throws IOException {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    String fileName = "target/test/MappedLogOutput.txt";
+    // small chunks, such that the file is remapped several times
+    MappedFileLogHook hook = new MappedFileLogHook(fileName, 1024);
+    Log.addLogHook(hook);
+    for (int i = 0; i < 500; i++) {
+      Log.println("line " + i);
+    }
+    Log.warn("0xA0000 a warning");
+    hook.close();
+    Log.println("after close");
+    Log.removeLogHook(hook);
+
+    List<String> lines = readLines(fileName);
+    assertEquals(502, lines.size());
+    assertEquals("line 0", lines.get(0));
+    assertEquals("line 499", lines.get(499));
+    assertEquals("[WARN]  0xA0000 a warning", lines.get(500));
+    assertEquals("after close", lines.get(501));
+    assertEquals(hook.getSize() + ("after close" + System.lineSeparator()).length(),
+        Files.size(Paths.get(fileName)));
+  }
+
+}
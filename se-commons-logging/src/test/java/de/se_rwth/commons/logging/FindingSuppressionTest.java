@@ -0,0 +1,80 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests the suppression of repeated findings
+ */
+public class FindingSuppressionTest {
+
+  @Test
+  public void testDeduplication() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    Log.enableFindingsDeduplication(true);
+
+    for (int i = 0; i < 100; i++) {
+      Log.warn("0xA1010 The symbol is unused.", new SourcePosition(1, 2));
+      Log.warn("0xA1010 The symbol is unused.", new SourcePosition(3, 4));
+      Log.error("Something else.");
+    }
+
+    assertEquals(3, Log.getFindingsCount());
+    assertEquals(1, Log.getErrorCount());
+    assertEquals(297, Log.getSuppressedFindingsCount());
+    assertEquals(198L, (long) Log.getSuppressedFindings().get("0xA1010"));
+    assertEquals(99L, (long) Log.getSuppressedFindings().get(FindingSuppression.NO_ERROR_CODE));
+
+    Log.clearFindings();
+    Log.error("Something else.");
+    assertEquals(1, Log.getFindingsCount());
+    assertEquals(0, Log.getSuppressedFindingsCount());
+  }
+
+  @Test
+  public void testFingerprint() {
+    Finding f = Finding.warning("0xA1010 unused", new SourcePosition(1, 2, "A.mc4"));
+    assertEquals(FindingSuppression.fingerprint(f),
+        FindingSuppression.fingerprint(Finding.warning("0xA1010 unused", new SourcePosition(1, 2, "A.mc4"))));
+    assertNotEquals(FindingSuppression.fingerprint(f),
+        FindingSuppression.fingerprint(Finding.error("0xA1010 unused", new SourcePosition(1, 2, "A.mc4"))));
+    assertNotEquals(FindingSuppression.fingerprint(f),
+        FindingSuppression.fingerprint(Finding.warning("0xA1010 unused", new SourcePosition(1, 2, "B.mc4"))));
+    assertNotEquals(FindingSuppression.fingerprint(f),
+        FindingSuppression.fingerprint(Finding.warning("0xA1010 unused", new SourcePosition(2, 1, "A.mc4"))));
+    assertNotEquals(FindingSuppression.fingerprint(f),
+        FindingSuppression.fingerprint(Finding.warning("0xA1010 unused")));
+  }
+
+  @Test
+  public void testMaxPerErrorCode() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    Log.setMaxFindingsPerErrorCode(10);
+
+    for (int i = 0; i < 100; i++) {
+      Log.warn("0xA1010 The symbol is unused.", new SourcePosition(i, 0));
+      Log.warn("0xA1011 The symbol is shadowed.", new SourcePosition(i, 0));
+      Log.warn("No error code.", new SourcePosition(i, 0));
+    }
+
+    assertEquals(120, Log.getFindingsCount());
+    assertEquals(180, Log.getSuppressedFindingsCount());
+    assertEquals("Suppressed 180 repeated findings (0xA1010: 90, 0xA1011: 90).",
+        Log.getLog().suppression.getSummary());
+  }
+
+  @Test
+  public void testErrorCode() {
+    assertEquals("0xA1010", FindingSuppression.getErrorCode("0xA1010 The symbol is unused."));
+    assertEquals("0xa1010", FindingSuppression.getErrorCode("0xa1010"));
+    assertEquals("", FindingSuppression.getErrorCode("0xA10 The symbol is unused."));
+    assertEquals("", FindingSuppression.getErrorCode("The symbol 0xA1010 is unused."));
+  }
+
+}
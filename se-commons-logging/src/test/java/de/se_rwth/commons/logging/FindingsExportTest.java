@@ -0,0 +1,70 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the export of findings as JSON lines and binary records
+ */
+public class FindingsExportTest {
+
+  @Test
+  public void testJsonLines() throws IOException {
+    String fileName = "target/test/findings.jsonl";
+    List<ExportedFinding> findings = export(fileName, FindingsExportHook.Format.JSON_LINES);
+
+    String first = Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8).get(0);
+    assertTrue(first.startsWith("{\"type\":\"WARNING\",\"msg\":\"0xA0001 \\\"quoted\\\"\\n\u00e4\","
+        + "\"start\":{\"line\":1,\"column\":2,\"file\":\"src/A.mc4\"},\"logName\":\"a.component\",\"timestamp\":"));
+    check(findings);
+  }
+
+  @Test
+  public void testBinary() throws IOException {
+    check(export("target/test/findings.bin", FindingsExportHook.Format.BINARY));
+  }
+
+  protected List<ExportedFinding> export(String fileName, FindingsExportHook.Format format) throws IOException {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    FindingsExportHook hook = new FindingsExportHook(fileName, format);
+    Log.addLogHook(hook);
+
+    Log.warn("0xA0001 \"quoted\"\n\u00e4", new SourcePosition(1, 2, "src/A.mc4"), "a.component");
+    Log.info("not exported", "a.component");
+    Log.error("0xA0002 error", new SourcePosition(3, 4), new SourcePosition(3, 9));
+    for (int i = 0; i < 10000; i++) {
+      Log.warn("0xA0003 warning " + i);
+    }
+    hook.close();
+    return FindingsExportReader.read(Paths.get(fileName));
+  }
+
+  protected void check(List<ExportedFinding> findings) {
+    assertEquals(10002, findings.size());
+    Finding warn = findings.get(0).getFinding();
+    assertEquals(Log.getFindings().get(0), warn);
+    assertEquals("a.component", warn.getLogName().get());
+    assertEquals("src/A.mc4", warn.getSourcePosition().get().getFileName().get());
+    assertEquals(Thread.currentThread().getName(), findings.get(0).getThread());
+    assertTrue(findings.get(0).getTimestamp() > 0);
+
+    Finding error = findings.get(1).getFinding();
+    assertTrue(error.isError());
+    assertEquals("<3,4> - <3,9>: 0xA0002 error", error.toString());
+    assertFalse(error.getLogName().isPresent());
+    assertEquals("0xA0003 warning 9999", findings.get(10001).getFinding().getMsg());
+  }
+
+}
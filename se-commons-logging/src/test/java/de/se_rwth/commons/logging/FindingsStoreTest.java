@@ -0,0 +1,145 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the concurrent storage and counting of findings
+ */
+public class FindingsStoreTest {
+
+  @Test
+  public void testConcurrentAdd() throws InterruptedException {
+    FindingsStore store = new FindingsStore();
+    int threads = 8;
+    int perThread = 5000;
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      final int id = t;
+      workers.add(new Thread(() -> {
+        for (int i = 0; i < perThread; i++) {
+          store.add(i % 2 == 0 ? Finding.warning(id + ":" + i) : Finding.error(id + ":" + i));
+        }
+      }));
+    }
+    workers.forEach(Thread::start);
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    assertEquals(threads * perThread, store.size());
+    assertEquals(threads * perThread / 2, store.getErrorCount());
+    assertEquals(threads * perThread / 2, store.getCount(Finding.Type.WARNING));
+    Set<String> messages = new HashSet<>();
+    store.forEach(f -> messages.add(f.getMsg()));
+    assertEquals(threads * perThread, messages.size());
+
+    store.clear();
+    assertEquals(0, store.size());
+    assertEquals(0, store.getErrorCount());
+  }
+
+  @Test
+  public void testLogCounts() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    Log.warn("0xA0001 warning");
+    Log.error("0xA0002 error");
+    Log.errorUser("0xA0003 user error");
+
+    assertEquals(3, Log.getFindingsCount());
+    assertEquals(2, Log.getErrorCount());
+    assertEquals("0xA0002 error", Log.getFindings().get(1).getMsg());
+
+    Log.clearFindings();
+    assertEquals(0, Log.getFindingsCount());
+    assertEquals(0, Log.getErrorCount());
+  }
+
+  @Test
+  public void testSpilling() {
+    Path file = Paths.get("target/test/findings.bin");
+    FindingsStore store = new FindingsStore(100, file);
+    for (int i = 0; i < 1000; i++) {
+      store.add(i % 10 == 0 ? Finding.error("error " + i) : Finding.warning("warning " + i, new SourcePosition(i, 1)));
+    }
+
+    assertEquals(1000, store.size());
+    assertEquals(900, store.getSpilledCount());
+    assertEquals(100, store.getErrorCount());
+    assertTrue(Files.exists(file));
+    int i = 0;
+    for (Finding f : store) {
+      assertEquals(i % 10 == 0 ? "error " + i : "warning " + i, f.getMsg());
+      i++;
+    }
+    assertEquals(1000, i);
+    assertEquals("warning 999", store.get(999).getMsg());
+    assertEquals(999, store.get(999).getSourcePosition().get().getLine());
+    // streams and searches read the spilled findings in batches
+    assertEquals(100, store.stream().filter(Finding::isError).count());
+    assertEquals(998, store.indexOf(Finding.warning("warning 998", new SourcePosition(998, 1))));
+    assertEquals(-1, store.indexOf(Finding.warning("warning 998")));
+    List<Finding> snapshot = store.snapshot();
+    List<Finding> view = store.view();
+    store.add(Finding.warning("after snapshot"));
+    assertEquals(1000, snapshot.size());
+    assertEquals("warning 999", snapshot.get(999).getMsg());
+    assertEquals(1000, view.size());
+    assertEquals("warning 999", view.get(999).getMsg());
+    assertEquals(100, view.stream().filter(Finding::isError).count());
+
+    store.clear();
+    assertEquals(0, store.size());
+    store.add(Finding.warning("warning"));
+    assertFalse(store.iterator().next().isError());
+  }
+
+  @Test
+  public void testLogRetention() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    Log.warn("0xA0001 retained");
+    Log.retainFindings(1, null);
+    Log.error("0xA0002 spilled", new SourcePosition(2, 3, "a/b.mc4"), "a.component");
+
+    assertEquals(2, Log.getFindingsCount());
+    assertEquals(1, Log.getErrorCount());
+    List<Finding> findings = new ArrayList<>(Log.getFindings());
+    assertEquals("0xA0001 retained", findings.get(0).getMsg());
+    assertEquals("b.mc4:<2,3>: 0xA0002 spilled", findings.get(1).toString());
+  }
+
+  @Test
+  public void testCodec() throws IOException {
+    Finding finding = Finding.userError("0xA0003 \u00e4", new SourcePosition(1, 2, "A.mc4"), new SourcePosition(3, 4));
+    finding.setLogName("a.component");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    FindingCodec.write(new DataOutputStream(bytes), finding);
+    Finding read = FindingCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertEquals(finding, read);
+    assertEquals(finding.getSourcePositionEnd(), read.getSourcePositionEnd());
+    assertEquals("a.component", read.getLogName().get());
+    assertEquals(finding.toString(), read.toString());
+  }
+
+}
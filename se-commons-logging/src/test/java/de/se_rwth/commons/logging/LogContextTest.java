@@ -0,0 +1,76 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the thread-bound log contexts
+ */
+public class LogContextTest {
+
+  @Test
+  public void testIsolatedFindings() throws InterruptedException {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    Log.warn("0xA0000 global warning");
+
+    int threads = 4;
+    CountDownLatch started = new CountDownLatch(threads);
+    AtomicLong failures = new AtomicLong();
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int errors = t + 1;
+      workers[t] = new Thread(() -> {
+        try (LogContext context = Log.withContext()) {
+          started.countDown();
+          started.await();
+          for (int i = 0; i < errors; i++) {
+            Log.error("0xA0001 error " + i);
+          }
+          if (context.getErrorCount() != errors || Log.getFindingsCount() != errors) {
+            failures.incrementAndGet();
+          }
+        } catch (InterruptedException e) {
+          failures.incrementAndGet();
+        }
+      });
+      workers[t].start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    assertEquals(0, failures.get());
+    // the global Log is not affected
+    assertEquals(1, Log.getFindingsCount());
+    assertEquals(0, Log.getErrorCount());
+  }
+
+  @Test
+  public void testInitWithinContext() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    try (LogContext context = Log.withContext()) {
+      // e.g. a tool initializing its own Log
+      Log.initWARN();
+      Log.enableFailQuick(false);
+      assertFalse(Log.isInfoEnabled("a.component"));
+      try (LogContext nested = Log.withContext()) {
+        Log.error("0xA0002 nested error");
+        assertEquals(1, nested.getErrorCount());
+      }
+      assertEquals(0, context.getErrorCount());
+    }
+    assertTrue(Log.isInfoEnabled("a.component"));
+    assertFalse(Log.isFailQuickEnabled());
+    assertEquals(0, Log.getFindingsCount());
+  }
+
+}
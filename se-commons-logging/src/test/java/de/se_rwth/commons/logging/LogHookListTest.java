@@ -0,0 +1,90 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the copy-on-write hook list
+ */
+public class LogHookListTest {
+
+  @Test
+  public void testSnapshotIsStable() {
+    LogHookList hooks = new LogHookList();
+    ILogHook a = new ConsoleLogHook();
+    ILogHook b = new ConsoleLogHook();
+    hooks.add(a);
+    ILogHook[] snapshot = hooks.snapshot();
+    hooks.add(b);
+    hooks.remove(a);
+
+    assertEquals(1, snapshot.length);
+    assertSame(a, snapshot[0]);
+    assertEquals(1, hooks.size());
+    assertSame(b, hooks.get(0));
+  }
+
+  @Test
+  public void testConcurrentModification() throws InterruptedException {
+    LogStub.init();
+    AtomicInteger printed = new AtomicInteger();
+    ILogHook counting = new ILogHook() {
+      @Override
+      public void doPrintln(String msg) {
+        printed.incrementAndGet();
+      }
+
+      @Override
+      public void doPrint(String msg) {
+      }
+
+      @Override
+      public void doPrintStackTrace(Throwable t) {
+      }
+
+      @Override
+      public void doErrPrint(String msg) {
+      }
+
+      @Override
+      public void doErrPrintStackTrace(Throwable t) {
+      }
+    };
+    Log.getLog().logHooks.add(counting);
+
+    List<Throwable> failures = new CopyOnWriteArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread t = new Thread(() -> {
+        for (int j = 0; j < 1000; j++) {
+          ILogHook temp = new ConsoleLogHook();
+          Log.getLog().logHooks.add(temp);
+          Log.getLog().logHooks.remove(temp);
+        }
+      });
+      t.setUncaughtExceptionHandler((thread, e) -> failures.add(e));
+      threads.add(t);
+      t.start();
+    }
+    for (int i = 0; i < 1000; i++) {
+      Log.println("msg");
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    assertEquals(Collections.emptyList(), failures);
+    assertEquals(1000, printed.get());
+    assertSame(counting, Log.getLog().logHooks.get(Log.getLog().logHooks.size() - 1));
+  }
+
+}
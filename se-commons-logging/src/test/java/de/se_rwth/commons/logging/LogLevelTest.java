@@ -0,0 +1,171 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the levels of individual log names
+ */
+public class LogLevelTest {
+
+  @Test
+  public void testHierarchicalLevels() {
+    LogStub.init(); // INFO globally
+    Log.setLogLevel("de.monticore.symboltable", LogLevel.TRACE);
+    Log.setLogLevel("de.monticore.symboltable.resolving", LogLevel.WARN);
+
+    assertTrue(Log.isTraceEnabled("de.monticore.symboltable"));
+    assertTrue(Log.isDebugEnabled("de.monticore.symboltable.Scope"));
+    assertFalse(Log.isInfoEnabled("de.monticore.symboltable.resolving.Resolver"));
+    // a prefix only matches complete segments
+    assertFalse(Log.isTraceEnabled("de.monticore.symboltablex"));
+    // unconfigured log names use the global levels
+    assertFalse(Log.isDebugEnabled("de.monticore.parser"));
+    assertTrue(Log.isInfoEnabled("de.monticore.parser"));
+
+    Log.trace("visible", "de.monticore.symboltable.Scope");
+    Log.trace("invisible", "de.monticore.parser");
+    assertEquals(1, LogStub.getPrints().size());
+
+    Log.clearLogLevels();
+    assertFalse(Log.isTraceEnabled("de.monticore.symboltable"));
+  }
+
+  @Test
+  public void testLevelsFromFile() throws IOException {
+    LogStub.init();
+    Path file = Paths.get("target/test/levels.properties");
+    Files.createDirectories(file.getParent());
+    try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      w.write("de.monticore=DEBUG\n");
+      w.write("de.monticore.generating = warn\n");
+    }
+    Log.loadLogLevels(file);
+
+    assertTrue(Log.isDebugEnabled("de.monticore.codegen"));
+    assertFalse(Log.isTraceEnabled("de.monticore.codegen"));
+    assertFalse(Log.isInfoEnabled("de.monticore.generating.templateengine"));
+  }
+
+  @Test
+  public void testInvalidLevels() {
+    LogLevelConfiguration config = new LogLevelConfiguration();
+    assertNull(config.getLevel("de.monticore.codegen"));
+    Properties properties = new Properties();
+    properties.setProperty("de.monticore", "DEBUG");
+    properties.setProperty("de.monticore.codegen", "LOUD");
+    try {
+      config.load(properties);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // no level of the properties is added
+      assertNull(config.getLevel("de.monticore.codegen"));
+    }
+
+    Locale locale = Locale.getDefault();
+    Locale.setDefault(new Locale("tr", "TR"));
+    try {
+      properties.setProperty("de.monticore.codegen", "info");
+      config.load(properties);
+    } finally {
+      Locale.setDefault(locale);
+    }
+    assertEquals(LogLevel.INFO, config.getLevel("de.monticore.codegen"));
+  }
+
+  @Test
+  public void testLevelsFromProperty() throws IOException {
+    Path file = Paths.get("target/test/property-levels.properties");
+    Files.createDirectories(file.getParent());
+    try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      w.write("de.monticore=TRACE\n");
+      w.write("de.monticore.generating=LOUD\n");
+    }
+    String old = System.getProperty(LogLevelConfiguration.LEVELS_FILE_PROPERTY);
+    try {
+      // invalid entries and unreadable files are reported, but do not fail
+      System.setProperty(LogLevelConfiguration.LEVELS_FILE_PROPERTY, file.toString());
+      assertEquals(1, LogLevelConfiguration.PropertyLevels.read().size());
+      assertEquals(LogLevel.TRACE, LogLevelConfiguration.PropertyLevels.read().get("de.monticore"));
+      System.setProperty(LogLevelConfiguration.LEVELS_FILE_PROPERTY, "target/test/missing.properties");
+      assertTrue(LogLevelConfiguration.PropertyLevels.read().isEmpty());
+    } finally {
+      if (old == null) {
+        System.clearProperty(LogLevelConfiguration.LEVELS_FILE_PROPERTY);
+      } else {
+        System.setProperty(LogLevelConfiguration.LEVELS_FILE_PROPERTY, old);
+      }
+    }
+  }
+
+  @Test
+  public void testLevelMask() {
+    LogStub.init(); // INFO globally
+    int traceDebug = Log.TRACE_MASK | Log.DEBUG_MASK;
+    assertEquals(0, Log.levelMask & traceDebug);
+    Log.debug("invisible", "de.monticore.parser");
+
+    // the levels of individual log names are included
+    Log.setLogLevel("de.monticore.parser", LogLevel.DEBUG);
+    assertEquals(Log.DEBUG_MASK, Log.levelMask & traceDebug);
+    Log.debug("visible", "de.monticore.parser");
+    assertEquals(1, LogStub.getPrints().size());
+    Log.clearLogLevels();
+    assertEquals(0, Log.levelMask & traceDebug);
+
+    // the Logs of contexts may enable other levels
+    try (LogContext context = Log.withContext()) {
+      assertEquals(Log.ALL_MASK, Log.levelMask);
+      Log.setLogLevel("de.monticore.parser", LogLevel.TRACE);
+      Log.trace("visible", "de.monticore.parser");
+    }
+    assertEquals(2, LogStub.getPrints().size());
+    assertEquals(0, Log.levelMask & traceDebug);
+  }
+
+  @Test
+  public void testLevelMaskOfOverriddenChecks() {
+    LogStub.init();
+    Log.setLog(new Log() {
+      @Override
+      protected boolean hasStableLevels() {
+        return true;
+      }
+
+      @Override
+      protected boolean doIsTraceEnabled(String logName) {
+        return true;
+      }
+    });
+    assertTrue(Log.isTraceEnabled("de.monticore.parser"));
+    assertFalse(Log.isDebugEnabled("de.monticore.parser"));
+  }
+
+  @Test
+  public void testLevelMaskOfSubclass() {
+    LogStub.init();
+    Log l = new Log() {
+    };
+    l.logHooks = new LogHookList();
+    Log.setLog(l);
+    // levels of subclasses may change after setting the Log
+    l.isDEBUG = true;
+    assertTrue(Log.isDebugEnabled("de.monticore.parser"));
+  }
+
+}
@@ -0,0 +1,116 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the sampling of trace and debug messages
+ */
+public class LogSamplingTest {
+
+  @Test
+  public void testOneInN() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    Log.setLogLevel("a", LogLevel.TRACE);
+    Log.sampleOneInN(10);
+    AtomicInteger constructed = new AtomicInteger();
+    for (int i = 0; i < 100; i++) {
+      Log.trace(() -> "trace " + constructed.incrementAndGet(), "a.component");
+      Log.debug("debug {}", "a.other", i);
+    }
+
+    // messages are sampled per log name, before they are constructed
+    assertEquals(20, LogStub.getPrints().size());
+    assertEquals(10, constructed.get());
+    assertTrue(LogStub.getPrints().get(0).contains("trace 1"));
+    assertTrue(LogStub.getPrints().get(3).contains("debug 10"));
+    assertEquals(180, Log.getDroppedMessagesCount());
+    assertEquals(90L, (long) Log.getDroppedMessages().get("a.component"));
+
+    // warnings are never sampled
+    Log.warn("0xA0001 warning", "a.component");
+    Log.warn("0xA0001 warning", "a.component");
+    assertEquals(2, Log.getFindingsCount());
+
+    Log.disableSampling();
+    Log.debug("not sampled", "a.component");
+    assertEquals(23, LogStub.getPrints().size());
+  }
+
+  @Test
+  public void testLazyMessagesUseOverrides() {
+    List<String> logged = new ArrayList<>();
+    Log.setLog(new Log() {
+      @Override
+      protected void doDebug(String msg, String logName) {
+        logged.add(msg);
+        super.doDebug(msg, logName);
+      }
+    });
+    Log.setLogLevel("a", LogLevel.DEBUG);
+    Log.sampleOneInN(2);
+    for (int i = 0; i < 10; i++) {
+      Log.debug(() -> "supplied", "a.component");
+      Log.debug("template {}", "a.component", i);
+    }
+
+    // the sampled messages are passed to the override, but not sampled again
+    assertEquals(10, logged.size());
+    assertEquals("supplied", logged.get(0));
+    assertEquals(10, Log.getDroppedMessagesCount());
+  }
+
+  @Test
+  public void testExceptionsUseOverrides() {
+    List<String> logged = new ArrayList<>();
+    Log.setLog(new Log() {
+      @Override
+      protected void doTrace(String msg, String logName) {
+        logged.add(msg);
+        super.doTrace(msg, logName);
+      }
+    });
+    Log.setLogLevel("a", LogLevel.TRACE);
+    Log.sampleOneInN(2);
+    for (int i = 0; i < 10; i++) {
+      Log.trace("failed", new IllegalStateException(), "a.component");
+    }
+
+    assertEquals(5, logged.size());
+    assertEquals(5, Log.getDroppedMessagesCount());
+  }
+
+  @Test
+  public void testPerSecond() {
+    LogSampling sampling = new LogSampling();
+    sampling.setMode(LogSampling.Mode.PER_SECOND, 5);
+    int sampled = 0;
+    for (int i = 0; i < 100; i++) {
+      if (sampling.sample("a.component")) {
+        sampled++;
+      }
+    }
+
+    // the burst of one second, and possibly a token refilled meanwhile
+    assertTrue(sampled >= 5 && sampled <= 6);
+    assertEquals(100 - sampled, sampling.getDroppedCount());
+    assertTrue(sampling.sample("another.component"));
+    assertTrue(sampling.getSummary().startsWith("Sampling dropped " + (100 - sampled)
+        + " trace/debug messages (a.component: "));
+
+    sampling.clear();
+    assertEquals(0, sampling.getDroppedCount());
+    sampling.setMode(LogSampling.Mode.DISABLED, 1);
+    assertFalse(sampling.isEnabled());
+  }
+
+}
@@ -0,0 +1,71 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the template formatting and the lazy log methods
+ */
+public class MessageFormatterTest {
+
+  @Test
+  public void testFormat() {
+    assertEquals("a 1 b", MessageFormatter.format("a {} b", 1));
+    assertEquals("1 and 2", MessageFormatter.format("{} and {}", 1, 2));
+    assertEquals("1, 2, {}", MessageFormatter.format("{}, {}, {}", new Object[] { 1, 2 }));
+    assertEquals("x {} 1", MessageFormatter.format("x \\{} {}", 1));
+    assertEquals("null", MessageFormatter.format("{}", (Object) null));
+    assertEquals("no placeholder", MessageFormatter.format("no placeholder", 1, 2));
+  }
+
+  @Test
+  public void testNestedFormat() {
+    Object nested = new Object() {
+      @Override
+      public String toString() {
+        return MessageFormatter.format("<{}>", "inner");
+      }
+    };
+    assertEquals("outer <inner> end", MessageFormatter.format("outer {} end", nested));
+  }
+
+  @Test
+  public void testLines() {
+    SourcePosition start = new SourcePosition(1, 2, "A.mc4");
+    SourcePosition end = new SourcePosition(3, 4, "A.mc4");
+    assertEquals("[DEBUG]  log A.mc4:<1,2>:msg",
+        MessageFormatter.line("[DEBUG]  ", "log", start, "msg"));
+    assertEquals("[DEBUG]  log A.mc4:<1,2> - A.mc4:<3,4>:msg",
+        MessageFormatter.line("[DEBUG]  ", "log", start, end, "msg"));
+    assertEquals("[WARN]  A.mc4:<1,2> - A.mc4:<3,4>: msg",
+        MessageFormatter.line("[WARN]  ", Finding.warning("msg", start, end)));
+    assertEquals(String.format("%s: %s", start, "msg"), Finding.error("msg", start).buildMsg());
+  }
+
+  @Test
+  public void testLazyLogging() {
+    LogStub.init();
+    Log.debug(() -> {
+      fail("the message must not be constructed for a disabled level");
+      return "";
+    }, "a.component");
+    Log.debug("value {}", "a.component", new Object() {
+      @Override
+      public String toString() {
+        fail("the argument must not be rendered for a disabled level");
+        return "";
+      }
+    });
+
+    Log.info(() -> "supplied", "a.component");
+    Log.info("{} + {} = {}", "a.component", 1, 2, 3);
+    assertEquals(2, LogStub.getPrints().size());
+    assertEquals("[INFO]  a.component supplied" + System.lineSeparator(), LogStub.getPrints().get(0));
+    assertEquals("[INFO]  a.component 1 + 2 = 3" + System.lineSeparator(), LogStub.getPrints().get(1));
+  }
+
+}
@@ -0,0 +1,115 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the recording, exporting and reporting of metrics
+ */
+public class MetricsTest {
+
+  @After
+  public void tearDown() {
+    Metrics.setEnabled(false);
+    Metrics.clear();
+  }
+
+  @Test
+  public void testDisabled() {
+    Metrics.setEnabled(false);
+    Metrics.count("mc.files");
+    Metrics.record("mc.size", 10);
+    try (Metrics.Stopwatch s = Metrics.start("mc.parse")) {
+      assertSame(Metrics.NOOP, s);
+    }
+    assertTrue(Metrics.getStats().isEmpty());
+  }
+
+  @Test
+  public void testRecording() {
+    Metrics.setEnabled(true);
+    Metrics.count("mc.files");
+    Metrics.count("mc.files", 2);
+    for (int i = 1; i <= 100; i++) {
+      Metrics.record("mc.size", i);
+    }
+    Metrics.recordNanos("mc.parse", 1_000_000);
+    assertEquals("result", Metrics.time("mc.parse", () -> "result"));
+
+    List<MetricStat> stats = Metrics.getStats();
+    assertEquals(3, stats.size());
+    MetricStat files = stats.get(0);
+    assertEquals("mc.files", files.getName());
+    assertEquals(MetricStat.Kind.COUNTER, files.getKind());
+    assertEquals(3, files.getSum());
+
+    MetricStat parse = stats.get(1);
+    assertEquals(MetricStat.Kind.TIMER, parse.getKind());
+    assertEquals(2, parse.getCount());
+    assertEquals(1_000_000, parse.getMax());
+
+    MetricStat size = stats.get(2);
+    assertEquals(100, size.getCount());
+    assertEquals(5050, size.getSum());
+    assertEquals(1, size.getMin());
+    assertEquals(100, size.getMax());
+    assertEquals(50.5, size.getMean(), 0.001);
+    // 50 falls into the bucket [32, 63], 95 into [64, 127]
+    assertEquals(63, size.getPercentile(0.5));
+    assertEquals(100, size.getPercentile(0.95));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKindMismatch() {
+    Metrics.setEnabled(true);
+    Metrics.count("mc.parse");
+    Metrics.start("mc.parse");
+  }
+
+  @Test
+  public void testDrainAndMerge() {
+    Metrics.setEnabled(true);
+    Metrics.record("mc.size", 5);
+    Map<String, long[]> first = Metrics.drainValues();
+    assertTrue(Metrics.getStats().isEmpty());
+    Metrics.record("mc.size", 20);
+    Map<String, long[]> second = Metrics.drainValues();
+
+    MetricStat merged = new MetricStat("mc.size", first.get("mc.size"))
+        .merge(new MetricStat("mc.size", second.get("mc.size")));
+    assertEquals(2, merged.getCount());
+    assertEquals(5, merged.getMin());
+    assertEquals(20, merged.getMax());
+    assertEquals(merged, new MetricStat("mc.size", merged.toValues()));
+  }
+
+  @Test
+  public void testTableSink() {
+    Metrics.setEnabled(true);
+    Metrics.count("mc.files", 12);
+    Metrics.recordNanos("mc.generate", 2_500_000);
+    List<String> lines = new ArrayList<>();
+    IMetricsSink sink = new MetricsTableSink(lines::add);
+    Metrics.addSink(sink);
+    try {
+      Metrics.report();
+    } finally {
+      Metrics.removeSink(sink);
+    }
+
+    assertEquals(3, lines.size());
+    assertTrue(lines.get(0).startsWith("metric"));
+    assertTrue(lines.get(1).matches("mc\\.files\\s+counter\\s+1\\s+12"));
+    assertTrue(lines.get(2).matches("mc\\.generate\\s+timer\\s+1\\s+2\\.50 ms\\s+2\\.50 ms\\s+2\\.50 ms\\s+2\\.50 ms"));
+  }
+
+}
@@ -0,0 +1,70 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the bounded print collector and the corresponding LogStub variants
+ */
+public class RingBufferLogPrintCollectorTest {
+
+  @Test
+  public void testKeepsMostRecentPrints() {
+    LogStub.init(3);
+    for (int i = 0; i < 10; i++) {
+      Log.print("print " + i);
+    }
+
+    assertEquals(3, LogStub.getPrints().size());
+    assertEquals("print 7", LogStub.getPrints().get(0));
+    assertEquals("print 9", LogStub.getPrints().get(2));
+    assertEquals(7, ((RingBufferLogPrintCollector) LogStub.collector).getOverwrittenCount());
+
+    LogStub.clearPrints();
+    assertTrue(LogStub.getPrints().isEmpty());
+    Log.print("after clear");
+    assertEquals("after clear", LogStub.getPrints().get(0));
+  }
+
+  @Test
+  public void testLevelFilter() {
+    LogStub.init(100, LogLevel.INFO);
+    Log.enableFailQuick(false);
+    Log.setLogLevel("a.component", LogLevel.DEBUG);
+    Log.debug("dropped", "a.component");
+    Log.info("kept", "a.component");
+    Log.warn("0xA0001 kept warning");
+
+    List<String> prints = LogStub.getPrints();
+    assertEquals(2, prints.size());
+    assertTrue(prints.get(0).contains("kept"));
+    assertTrue(prints.get(1).contains("0xA0001 kept warning"));
+  }
+
+  @Test
+  public void testConcurrentPrints() throws InterruptedException {
+    RingBufferLogPrintCollector collector = new RingBufferLogPrintCollector(1000);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          collector.doPrint("print " + i);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(1000, collector.getPrints().size());
+    assertEquals(39_000, collector.getOverwrittenCount());
+  }
+
+}
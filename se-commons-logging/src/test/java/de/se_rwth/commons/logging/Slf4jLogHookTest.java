@@ -0,0 +1,87 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.se_rwth.commons.logging;
+
+import de.se_rwth.commons.SourcePosition;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the routing and caching of the slf4j loggers
+ */
+public class Slf4jLogHookTest {
+
+  // the messages logged, as "loggerName level message"
+  protected List<String> logged = new ArrayList<>();
+
+  protected AtomicInteger created = new AtomicInteger();
+
+  protected Logger logger(String name) {
+    created.incrementAndGet();
+    return (Logger) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Logger.class},
+        (proxy, method, args) -> {
+          if (method.getName().startsWith("is")) {
+            return !name.equals("quiet");
+          }
+          if (method.getName().equals("getName")) {
+            return name;
+          }
+          logged.add(name + " " + method.getName() + " " + args[0]);
+          return null;
+        });
+  }
+
+  @Test
+  public void testRoutingToComponentLoggers() {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    Slf4jLogHook hook = new Slf4jLogHook();
+    hook.factory = this::logger;
+    Log.getLog().logHooks.clear();
+    Log.addLogHook(hook);
+
+    Log.info("info", "a.component");
+    Log.info("dropped", "quiet");
+    Log.warn("0xA0001 warning", new SourcePosition(1, 2), "a.component");
+    Log.error("0xA0002 error", "another.component");
+    Log.warn("0xA0003 unnamed warning");
+
+    assertEquals("a.component info info", logged.get(0));
+    assertEquals("a.component warn <1,2>: 0xA0001 warning", logged.get(1));
+    assertEquals("another.component error 0xA0002 error", logged.get(2));
+    assertEquals(Logger.ROOT_LOGGER_NAME + " warn 0xA0003 unnamed warning", logged.get(3));
+    assertEquals(4, logged.size());
+    assertEquals("a.component", Log.getFindings().get(0).getLogName().get());
+
+    // the loggers are resolved once per log name
+    assertEquals(4, created.get());
+    for (int i = 0; i < 10; i++) {
+      Log.debug("debug", "a.component");
+    }
+    assertEquals(4, created.get());
+  }
+
+  @Test
+  public void testBoundedCache() {
+    Slf4jLogHook hook = new Slf4jLogHook();
+    hook.factory = this::logger;
+    for (int i = 0; i < Slf4jLogHook.MAX_CACHED_LOGGERS + 10; i++) {
+      hook.getLogger("component" + i);
+    }
+    assertEquals(Slf4jLogHook.MAX_CACHED_LOGGERS, hook.loggers.size());
+
+    // the cached loggers are kept, further ones are resolved on every use
+    int resolved = created.get();
+    hook.getLogger("component0");
+    assertEquals(resolved, created.get());
+    hook.getLogger("component" + Slf4jLogHook.MAX_CACHED_LOGGERS);
+    assertEquals(resolved + 1, created.get());
+  }
+
+}
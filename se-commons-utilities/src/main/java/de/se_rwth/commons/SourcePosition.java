@@ -1,6 +1,8 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.se_rwth.commons;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import org.apache.commons.io.FilenameUtils;
 
 import java.util.Objects;
@@ -31,8 +33,12 @@ public final class SourcePosition implements Comparable<SourcePosition>, Cloneab
   /* source position column */
   private int column = 0;
   
-  /* file name */
-  private Optional<String> fileName = Optional.empty();
+  /* file name (nullable rather than Optional, and interned, as millions of
+   * positions of the same few files may be kept) */
+  private String fileName;
+
+  /* the file names of all positions, such that equal names share one string */
+  private static final Interner<String> FILE_NAMES = Interners.newWeakInterner();
   
   /**
    * Constructor for mc.ast.SourcePosition
@@ -117,22 +123,22 @@ public final class SourcePosition implements Comparable<SourcePosition>, Cloneab
    * @return fileName
    */
   public Optional<String> getFileName() {
-    return this.fileName;
+    return Optional.ofNullable(this.fileName);
   }
   
   /**
    * @param fileName the fileName to set
    */
   public void setFileName(String fileName) {
-    this.fileName = Optional.ofNullable(fileName);
+    this.fileName = fileName == null ? null : FILE_NAMES.intern(fileName);
   }
   
   @Override
   public boolean equals(Object o) {
     if (o instanceof SourcePosition) {
       SourcePosition other = (SourcePosition) o;
-      return Integer.valueOf(this.line).equals(Integer.valueOf(other.line))
-          && Integer.valueOf(this.column).equals(Integer.valueOf(other.column))
+      return this.line == other.line
+          && this.column == other.column
           && Objects.equals(this.fileName, other.fileName);
     }
     return false;
@@ -144,7 +150,7 @@ public final class SourcePosition implements Comparable<SourcePosition>, Cloneab
     int result = 1;
     result = prime * result + this.line;
     result = prime * result + this.column;
-    result = this.fileName.isPresent() ? prime * result + this.fileName.get().hashCode() : result;
+    result = this.fileName != null ? prime * result + this.fileName.hashCode() : result;
     return result;
   }
   
@@ -157,15 +163,15 @@ public final class SourcePosition implements Comparable<SourcePosition>, Cloneab
    */
   @Override
   public String toString() {
-    return (this.fileName.isPresent() ? FilenameUtils.getName(this.fileName.get()) + ":" : "")
+    return (this.fileName != null ? FilenameUtils.getName(this.fileName) + ":" : "")
         + "<" + this.line + ","
         + this.column + ">";
   }
   
   @Override
   public int compareTo(SourcePosition o) {
-    if (this.fileName.isPresent() && o.fileName.isPresent()) {
-      int fileCompare = this.fileName.get().compareTo(o.fileName.get());
+    if (this.fileName != null && o.fileName != null) {
+      int fileCompare = this.fileName.compareTo(o.fileName);
       return fileCompare == 0 ? ((this.line - o.line) == 0
           ? (this.column - o.column)
           : (this.line - o.line)) : fileCompare;
@@ -177,8 +183,8 @@ public final class SourcePosition implements Comparable<SourcePosition>, Cloneab
   
   @Override
   public SourcePosition clone() {
-    return this.fileName.isPresent() ? new SourcePosition(this.line, this.column,
-        this.fileName.get()) : new SourcePosition(this.line, this.column);
+    return this.fileName != null ? new SourcePosition(this.line, this.column,
+        this.fileName) : new SourcePosition(this.line, this.column);
   }
   
 }
@@ -7,6 +7,7 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 
 public class SourcePositionTest {
 
@@ -31,4 +32,20 @@ public class SourcePositionTest {
       }
     }
   }
+
+  @Test
+  public void fileNamesAreShared() {
+    SourcePosition p1 = new SourcePosition(1, 2, new String("src/A.mc4"));
+    SourcePosition p2 = new SourcePosition(3, 4, new String("src/A.mc4"));
+    assertSame(p1.getFileName().get(), p2.getFileName().get());
+    assertEquals(new SourcePosition(1, 2, "src/A.mc4"), p1);
+    assertEquals(p2, p2.clone());
+  }
+
+  @Test
+  public void hashCodeIsStable() {
+    // as computed by previous versions, which relied on Optional
+    assertEquals((31 + 1) * 31 + 2, new SourcePosition(1, 2).hashCode());
+    assertEquals(((31 + 1) * 31 + 2) * 31 + "A.mc4".hashCode(), new SourcePosition(1, 2, "A.mc4").hashCode());
+  }
 }